@@ -0,0 +1,82 @@
+package com.example.scheme.finder.analytics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size frequency sketch: depth rows of width counters, one cell per row per key. Estimates
+// never undercount and overcount by at most total/width with high probability in depth.
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray cells;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.cells = new AtomicLongArray(width * depth);
+    }
+
+    // Adds and returns the new estimate in one pass
+    long add(String key, long count) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int cell = row * width + index(h1 + row * h2);
+            estimate = Math.min(estimate, cells.addAndGet(cell, count));
+        }
+        return estimate;
+    }
+
+    long estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.get(row * width + index(h1 + row * h2)));
+        }
+        return estimate;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(depth);
+        for (int i = 0; i < cells.length(); i++) {
+            out.writeLong(cells.get(i));
+        }
+    }
+
+    // False (and nothing read past the header) when the checkpoint was taken with other dimensions
+    boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != width || in.readInt() != depth) return false;
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, in.readLong());
+        }
+        return true;
+    }
+
+    private int index(int hash) {
+        return (hash & Integer.MAX_VALUE) % width;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur mix so both halves are usable
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
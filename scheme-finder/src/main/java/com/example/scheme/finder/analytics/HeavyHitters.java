@@ -0,0 +1,92 @@
+package com.example.scheme.finder.analytics;
+
+import com.example.scheme.finder.dto.SchemeDto;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Count-Min sketch plus the k keys with the highest estimates seen so far. Keys at or below the
+// smallest tracked estimate are rejected without taking the lock, which is the common case once
+// the top list has filled up.
+final class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final LongAdder total = new LongAdder();
+    private final Map<String, Long> top = new HashMap<>();
+    private volatile long threshold;
+
+    HeavyHitters(int width, int depth, int capacity) {
+        this.sketch = new CountMinSketch(width, depth);
+        this.capacity = capacity;
+    }
+
+    void add(String key) {
+        total.increment();
+        long estimate = sketch.add(key, 1);
+        if (estimate <= threshold) return;
+        synchronized (this) {
+            offer(key, estimate);
+        }
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    synchronized List<SchemeDto.HeavyHitter> top(int limit) {
+        List<SchemeDto.HeavyHitter> hitters = new ArrayList<>(top.size());
+        top.forEach((key, count) -> hitters.add(new SchemeDto.HeavyHitter(key, count)));
+        hitters.sort(Comparator.comparingLong(SchemeDto.HeavyHitter::getCount).reversed());
+        return hitters.subList(0, Math.min(Math.max(limit, 0), hitters.size()));
+    }
+
+    synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(total.sum());
+        sketch.writeTo(out);
+        out.writeInt(top.size());
+        for (Map.Entry<String, Long> entry : top.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    synchronized boolean readFrom(DataInputStream in) throws IOException {
+        long restoredTotal = in.readLong();
+        if (!sketch.readFrom(in)) return false;
+        total.add(restoredTotal);
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            offer(key, Math.max(in.readLong(), sketch.estimate(key)));
+        }
+        return true;
+    }
+
+    private void offer(String key, long estimate) {
+        if (top.containsKey(key) || top.size() < capacity) {
+            top.put(key, estimate);
+        } else {
+            Map.Entry<String, Long> smallest = smallest();
+            if (estimate <= smallest.getValue()) return;
+            top.remove(smallest.getKey());
+            top.put(key, estimate);
+        }
+        if (top.size() >= capacity) threshold = smallest().getValue();
+    }
+
+    private Map.Entry<String, Long> smallest() {
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> entry : top.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) smallest = entry;
+        }
+        return smallest;
+    }
+}
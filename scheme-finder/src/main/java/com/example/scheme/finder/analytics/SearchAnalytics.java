@@ -0,0 +1,162 @@
+package com.example.scheme.finder.analytics;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.eligibility.EligibilityProfile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// What people search for and look at, in bounded memory: every stream is a Count-Min sketch with a
+// top-k list, so recording is a handful of atomic adds. Streams are checkpointed to a binary file
+// and restored at startup; the reported start time is when the oldest restored data began.
+@Component
+@Slf4j
+public class SearchAnalytics {
+
+    private static final int CHECKPOINT_MAGIC = 0x53524348;
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private enum Stream {
+        QUERIES, ZERO_RESULT_QUERIES, ELIGIBILITY_PROFILES, ZERO_RESULT_ELIGIBILITY_PROFILES, SCHEME_VIEWS
+    }
+
+    @Value("${app.analytics.sketch-width:2048}")
+    private int width;
+
+    @Value("${app.analytics.sketch-depth:4}")
+    private int depth;
+
+    @Value("${app.analytics.top-k:100}")
+    private int topK;
+
+    @Value("${app.analytics.checkpoint-path:data/analytics.checkpoint}")
+    private String checkpointPath;
+
+    private final Map<Stream, HeavyHitters> streams = new EnumMap<>(Stream.class);
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    @PostConstruct
+    void start() {
+        reset();
+        restore();
+    }
+
+    @PreDestroy
+    void stop() {
+        checkpoint();
+    }
+
+    public void recordSearch(String keyword, long hits) {
+        String query = normalize(keyword);
+        if (query.isEmpty()) return;
+        streams.get(Stream.QUERIES).add(query);
+        if (hits == 0) streams.get(Stream.ZERO_RESULT_QUERIES).add(query);
+    }
+
+    // Profiles are bucketed (age by decade, no income) so the key space stays small and anonymous
+    public void recordEligibilityCheck(EligibilityProfile profile, long matches) {
+        String key = "gender=" + profile.getGender()
+                + ", age=" + (profile.getAge() != null ? (profile.getAge() / 10 * 10) + "s" : null)
+                + ", category=" + profile.getCategory()
+                + ", state=" + profile.getState();
+        streams.get(Stream.ELIGIBILITY_PROFILES).add(key);
+        if (matches == 0) streams.get(Stream.ZERO_RESULT_ELIGIBILITY_PROFILES).add(key);
+    }
+
+    public void recordSchemeView(Long schemeId) {
+        streams.get(Stream.SCHEME_VIEWS).add(String.valueOf(schemeId));
+    }
+
+    public SchemeDto.SearchAnalyticsReport report(int limit) {
+        return SchemeDto.SearchAnalyticsReport.builder()
+                .since(since)
+                .searches(streams.get(Stream.QUERIES).total())
+                .zeroResultSearches(streams.get(Stream.ZERO_RESULT_QUERIES).total())
+                .eligibilityChecks(streams.get(Stream.ELIGIBILITY_PROFILES).total())
+                .zeroResultEligibilityChecks(streams.get(Stream.ZERO_RESULT_ELIGIBILITY_PROFILES).total())
+                .schemeViews(streams.get(Stream.SCHEME_VIEWS).total())
+                .topQueries(streams.get(Stream.QUERIES).top(limit))
+                .topZeroResultQueries(streams.get(Stream.ZERO_RESULT_QUERIES).top(limit))
+                .topEligibilityProfiles(streams.get(Stream.ELIGIBILITY_PROFILES).top(limit))
+                .topZeroResultEligibilityProfiles(streams.get(Stream.ZERO_RESULT_ELIGIBILITY_PROFILES).top(limit))
+                .topSchemes(streams.get(Stream.SCHEME_VIEWS).top(limit))
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.checkpoint-interval-ms:300000}",
+            initialDelayString = "${app.analytics.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        Path target = Paths.get(checkpointPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            if (target.getParent() != null) Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeUTF(since.toString());
+                out.writeInt(streams.size());
+                for (Map.Entry<Stream, HeavyHitters> entry : streams.entrySet()) {
+                    out.writeUTF(entry.getKey().name());
+                    entry.getValue().writeTo(out);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not write search analytics checkpoint to {}: {}", target, ex.getMessage());
+        }
+    }
+
+    // A checkpoint with other sketch dimensions cannot be merged, so the streams start empty
+    private void restore() {
+        Path source = Paths.get(checkpointPath);
+        if (!Files.exists(source)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) return;
+            LocalDateTime restoredSince = LocalDateTime.parse(in.readUTF());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                HeavyHitters hitters = streams.get(Stream.valueOf(in.readUTF()));
+                if (!hitters.readFrom(in)) {
+                    log.info("Ignoring search analytics checkpoint {} taken with different sketch dimensions", source);
+                    reset();
+                    return;
+                }
+            }
+            since = restoredSince;
+            log.info("Restored search analytics since {}", since);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not read search analytics checkpoint {}: {}", source, ex.getMessage());
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (Stream stream : Stream.values()) {
+            streams.put(stream, new HeavyHitters(width, depth, topK));
+        }
+    }
+
+    private static String normalize(String keyword) {
+        if (keyword == null) return "";
+        String query = keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    }
+}
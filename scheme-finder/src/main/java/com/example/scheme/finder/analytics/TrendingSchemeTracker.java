@@ -0,0 +1,264 @@
+package com.example.scheme.finder.analytics;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SavedSchemeChangedEvent;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recent activity per scheme in fixed-size ring buffers of time buckets (one hour by default, a day
+// of them). A scheduled pass scores every window with an exponential half-life and keeps the ranked
+// head, so the endpoint only slices a prepared list. Windows are snapshotted to a small binary file
+// and restored on startup so a deploy does not wipe the ranking.
+@Component
+@Slf4j
+public class TrendingSchemeTracker {
+
+    private static final int SNAPSHOT_MAGIC = 0x54524e44;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    @Value("${app.trending.bucket-minutes:60}")
+    private long bucketMinutes;
+
+    @Value("${app.trending.buckets:24}")
+    private int bucketCount;
+
+    @Value("${app.trending.half-life-minutes:360}")
+    private double halfLifeMinutes;
+
+    @Value("${app.trending.save-weight:5}")
+    private int saveWeight;
+
+    @Value("${app.trending.max-results:100}")
+    private int maxResults;
+
+    @Value("${app.trending.snapshot-path:data/trending.snapshot}")
+    private String snapshotPath;
+
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private volatile List<SchemeDto.TrendingScheme> ranking = List.of();
+    private long bucketMillis;
+
+    @PostConstruct
+    void start() {
+        bucketMillis = bucketMinutes * 60_000L;
+        restore();
+        rank();
+    }
+
+    @PreDestroy
+    void stop() {
+        snapshot();
+    }
+
+    public void recordView(SchemeDto.SchemeResponse scheme) {
+        record(scheme.getId(), scheme.getTitle(), scheme.getStatus(), 1, 0);
+    }
+
+    // Only committed saves count, so a save that rolls back never reaches the ranking
+    @TransactionalEventListener
+    public void onSavedSchemeChanged(SavedSchemeChangedEvent event) {
+        Scheme scheme = event.getSavedScheme();
+        if (scheme != null) record(scheme.getId(), scheme.getTitle(), scheme.getStatus(), 0, 1);
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        Scheme scheme = event.getScheme();
+        if (event.getType() == SchemeChangedEvent.ChangeType.DELETED || scheme.getStatus() != Scheme.SchemeStatus.ACTIVE) {
+            windows.remove(scheme.getId());
+        } else {
+            Window window = windows.get(scheme.getId());
+            if (window != null) window.title = scheme.getTitle();
+        }
+    }
+
+    // Ranked on the last refresh, so this never touches the windows or the database
+    public List<SchemeDto.TrendingScheme> top(int limit) {
+        List<SchemeDto.TrendingScheme> current = ranking;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.refresh-interval-ms:60000}")
+    public void rank() {
+        long bucket = currentBucket();
+        PriorityQueue<SchemeDto.TrendingScheme> head =
+                new PriorityQueue<>(Comparator.comparingDouble(SchemeDto.TrendingScheme::getScore));
+        for (Map.Entry<Long, Window> entry : windows.entrySet()) {
+            SchemeDto.TrendingScheme scored = entry.getValue().score(entry.getKey(), bucket);
+            if (scored == null) {
+                // Re-checked under the key's lock that record() adds through, so a hit that lands
+                // between the score and the removal keeps its window
+                windows.computeIfPresent(entry.getKey(), (id, window) -> window.isEmpty(currentBucket()) ? null : window);
+                continue;
+            }
+            head.offer(scored);
+            if (head.size() > maxResults) head.poll();
+        }
+        List<SchemeDto.TrendingScheme> ranked = new ArrayList<>(head);
+        ranked.sort(Comparator.comparingDouble(SchemeDto.TrendingScheme::getScore).reversed());
+        ranking = Collections.unmodifiableList(ranked);
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.trending.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long bucket = currentBucket();
+        try {
+            if (target.getParent() != null) Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(bucketMillis);
+                for (Map.Entry<Long, Window> entry : windows.entrySet()) {
+                    entry.getValue().writeTo(entry.getKey(), bucket, out);
+                }
+                out.writeLong(-1L);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not write trending snapshot to {}: {}", target, ex.getMessage());
+        }
+    }
+
+    private void restore() {
+        Path source = Paths.get(snapshotPath);
+        if (!Files.exists(source)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION || in.readLong() != bucketMillis) {
+                log.info("Ignoring trending snapshot {} written with a different layout", source);
+                return;
+            }
+            long oldest = currentBucket() - bucketCount + 1;
+            for (long schemeId = in.readLong(); schemeId >= 0; schemeId = in.readLong()) {
+                Window window = new Window(in.readUTF(), bucketCount);
+                int slots = in.readInt();
+                for (int i = 0; i < slots; i++) {
+                    long bucket = in.readLong();
+                    int views = in.readInt();
+                    int saves = in.readInt();
+                    if (bucket >= oldest) window.add(bucket, views, saves);
+                }
+                windows.put(schemeId, window);
+            }
+            log.info("Restored trending windows for {} schemes", windows.size());
+        } catch (IOException ex) {
+            windows.clear();
+            log.warn("Could not read trending snapshot {}: {}", source, ex.getMessage());
+        }
+    }
+
+    private void record(Long schemeId, String title, Scheme.SchemeStatus status, int views, int saves) {
+        if (status != Scheme.SchemeStatus.ACTIVE) return;
+        long bucket = currentBucket();
+        windows.compute(schemeId, (id, window) -> {
+            if (window == null) window = new Window(title, bucketCount);
+            window.add(bucket, views, saves);
+            return window;
+        });
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private final class Window {
+        private volatile String title;
+        private final long[] buckets;
+        private final int[] views;
+        private final int[] saves;
+
+        private Window(String title, int size) {
+            this.title = title;
+            this.buckets = new long[size];
+            this.views = new int[size];
+            this.saves = new int[size];
+        }
+
+        // A slot still holding an older bucket is recycled in place
+        synchronized void add(long bucket, int viewDelta, int saveDelta) {
+            int slot = (int) (bucket % buckets.length);
+            if (buckets[slot] != bucket) {
+                buckets[slot] = bucket;
+                views[slot] = 0;
+                saves[slot] = 0;
+            }
+            views[slot] += viewDelta;
+            saves[slot] += saveDelta;
+        }
+
+        synchronized boolean isEmpty(long current) {
+            for (int slot = 0; slot < buckets.length; slot++) {
+                long age = current - buckets[slot];
+                if (age >= 0 && age < buckets.length && views[slot] + saves[slot] > 0) return false;
+            }
+            return true;
+        }
+
+        // Null once every slot has aged out of the window
+        synchronized SchemeDto.TrendingScheme score(long schemeId, long current) {
+            double score = 0;
+            long totalViews = 0;
+            long totalSaves = 0;
+            for (int slot = 0; slot < buckets.length; slot++) {
+                long age = current - buckets[slot];
+                if (age < 0 || age >= buckets.length || views[slot] + saves[slot] == 0) continue;
+                double decay = Math.pow(0.5, age * bucketMinutes / halfLifeMinutes);
+                score += (views[slot] + (double) saveWeight * saves[slot]) * decay;
+                totalViews += views[slot];
+                totalSaves += saves[slot];
+            }
+            if (score == 0) return null;
+            return SchemeDto.TrendingScheme.builder()
+                    .schemeId(schemeId)
+                    .title(title)
+                    .score(score)
+                    .views(totalViews)
+                    .saves(totalSaves)
+                    .build();
+        }
+
+        synchronized void writeTo(long schemeId, long current, DataOutputStream out) throws IOException {
+            int live = 0;
+            for (int slot = 0; slot < buckets.length; slot++) {
+                if (current - buckets[slot] < buckets.length && views[slot] + saves[slot] > 0) live++;
+            }
+            if (live == 0) return;
+            out.writeLong(schemeId);
+            out.writeUTF(title != null ? title : "");
+            out.writeInt(live);
+            for (int slot = 0; slot < buckets.length; slot++) {
+                if (current - buckets[slot] < buckets.length && views[slot] + saves[slot] > 0) {
+                    out.writeLong(buckets[slot]);
+                    out.writeInt(views[slot]);
+                    out.writeInt(saves[slot]);
+                }
+            }
+        }
+    }
+}
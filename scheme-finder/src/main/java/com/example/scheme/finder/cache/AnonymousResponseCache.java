@@ -0,0 +1,156 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Final JSON bytes of anonymous list responses, keyed by path and known query parameters, with a
+// gzip copy for larger bodies. Any scheme or category change clears everything; the TTL bounds how
+// long view counts and similar side data can lag. Reads are lock-free; inserts are serialised and
+// evict expired, then oldest, entries until the new one fits the byte budget.
+@Component
+@Slf4j
+public class AnonymousResponseCache {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+    // Rough per-entry cost of the key, map node and array headers
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Value("${app.cache.anonymous-responses.max-entries:512}")
+    private int maxEntries;
+
+    @Value("${app.cache.anonymous-responses.max-bytes:4194304}")
+    private long maxBytes;
+
+    @Value("${app.cache.anonymous-responses.max-body-bytes:262144}")
+    private int maxBodyBytes;
+
+    @Value("${app.cache.anonymous-responses.ttl-ms:60000}")
+    private long ttlMillis;
+
+    private final ConcurrentHashMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // Every stored response in insertion order, including ones since replaced or expired;
+    // totalBytes is the sum over this queue. Both guarded by this.
+    private final ArrayDeque<CachedResponse> insertionOrder = new ArrayDeque<>();
+    private long totalBytes;
+
+    public CachedResponse get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null || isExpired(cached, System.currentTimeMillis())) return null;
+        return cached;
+    }
+
+    // Taken before the request is handled and passed back to put, so a response rendered from data
+    // that changed meanwhile is not stored
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, long loadGeneration, String contentType, byte[] body) {
+        if (body.length > maxBodyBytes) return;
+        byte[] gzipped = body.length >= GZIP_MIN_BYTES ? gzip(body) : null;
+        long now = System.currentTimeMillis();
+        CachedResponse cached = new CachedResponse(key, contentType, body, gzipped, now);
+        if (cached.size > maxBytes) return;
+
+        synchronized (this) {
+            // invalidate() bumps the generation under this lock, so the check cannot race with a clear
+            if (generation.get() != loadGeneration) return;
+            while (!insertionOrder.isEmpty() && isExpired(insertionOrder.peekFirst(), now)) {
+                evictOldest();
+            }
+            while (!insertionOrder.isEmpty()
+                    && (totalBytes + cached.size > maxBytes || insertionOrder.size() >= maxEntries)) {
+                evictOldest();
+            }
+            insertionOrder.addLast(cached);
+            totalBytes += cached.size;
+            entries.put(key, cached);
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate();
+    }
+
+    private synchronized void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+        insertionOrder.clear();
+        totalBytes = 0;
+    }
+
+    // Caller holds the lock
+    private void evictOldest() {
+        CachedResponse oldest = insertionOrder.pollFirst();
+        totalBytes -= oldest.size;
+        entries.remove(oldest.key, oldest);
+    }
+
+    private boolean isExpired(CachedResponse cached, long now) {
+        return now - cached.storedAt >= ttlMillis;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static final class CachedResponse {
+        private final String key;
+        private final String contentType;
+        private final byte[] body;
+        private final byte[] gzipped;
+        private final long storedAt;
+        private final long size;
+
+        private CachedResponse(String key, String contentType, byte[] body, byte[] gzipped, long storedAt) {
+            this.key = key;
+            this.contentType = contentType;
+            this.body = body;
+            this.gzipped = gzipped;
+            this.storedAt = storedAt;
+            this.size = ENTRY_OVERHEAD_BYTES + 2L * key.length() + body.length + (gzipped != null ? gzipped.length : 0);
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        // Null when the body was too small to be worth compressing
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+    }
+}
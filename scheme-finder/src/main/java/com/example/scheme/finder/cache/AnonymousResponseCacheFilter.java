@@ -0,0 +1,91 @@
+package com.example.scheme.finder.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Runs inside the security chain after JWT authentication, so CORS headers are already on the
+// response and an unauthenticated caller is known. Hits are written straight to the servlet output
+// stream; misses go through MVC once and have their body captured.
+@Component
+@RequiredArgsConstructor
+public class AnonymousResponseCacheFilter extends OncePerRequestFilter {
+
+    // Cacheable paths with the request parameters their handlers read, in key order; any other
+    // parameter is ignored by MVC and so must not split the cache
+    private static final Map<String, List<String>> CACHEABLE_PATHS = Map.of(
+            "/api/schemes", List.of("page", "size", "sortBy", "sortDir", "includeFacets"),
+            "/api/schemes/featured", List.of(),
+            "/api/categories", List.of());
+
+    private final AnonymousResponseCache anonymousResponseCache;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !CACHEABLE_PATHS.containsKey(request.getRequestURI())
+                || SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = keyOf(request.getRequestURI(), request.getParameterMap());
+        AnonymousResponseCache.CachedResponse cached = anonymousResponseCache.get(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        long generation = anonymousResponseCache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && contentType != null && contentType.contains("json")) {
+            anonymousResponseCache.put(key, generation, contentType, wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static void write(AnonymousResponseCache.CachedResponse cached, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = cached.getGzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? cached.getGzipped() : cached.getBody();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.getContentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Single-valued binding uses the first value, so that is all the key needs
+    static String keyOf(String path, Map<String, String[]> parameters) {
+        StringBuilder key = new StringBuilder(path);
+        char separator = '?';
+        for (String name : CACHEABLE_PATHS.getOrDefault(path, List.of())) {
+            String[] values = parameters.get(name);
+            if (values == null || values.length == 0) continue;
+            key.append(separator).append(name).append('=').append(URLEncoder.encode(values[0], StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return key.toString();
+    }
+}
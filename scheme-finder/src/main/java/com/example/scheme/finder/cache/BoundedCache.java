@@ -0,0 +1,125 @@
+package com.example.scheme.finder.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Size-bounded LRU map with an optional TTL, for the per-user and per-scheme caches. Lookups and
+// inserts take one short lock; loads run outside it, one per key, with concurrent callers waiting
+// on the same future. An invalidate or put that lands while a load is running detaches that load,
+// so its possibly stale result is returned to its callers but never stored.
+public final class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    // Access-ordered, so the eldest entry is the least recently used one. Guarded by this.
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    // A ttlMillis of 0 keeps entries until they are evicted or invalidated
+    public BoundedCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public V getIfPresent(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) return null;
+            if (isExpired(entry, now)) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) return cached;
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, load);
+        if (running != null) return join(running);
+        try {
+            V value = loader.apply(key);
+            load.complete(value);
+            synchronized (this) {
+                if (loading.get(key) == load && value != null) store(key, value);
+            }
+            return value;
+        } catch (RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    public synchronized void put(K key, V value) {
+        loading.remove(key);
+        store(key, value);
+    }
+
+    // Swaps in a refreshed value only if the entry has not changed since it was read
+    public synchronized boolean replace(K key, V expected, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value != expected) return false;
+        store(key, value);
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        loading.remove(key);
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        loading.clear();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Caller holds the lock
+    private void store(K key, V value) {
+        long now = System.currentTimeMillis();
+        entries.put(key, new Entry<>(value, now));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Entry<V> entry = eldest.next().getValue();
+            if (entries.size() <= maxEntries && !isExpired(entry, now)) break;
+            eldest.remove();
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlMillis > 0 && now - entry.loadedAt >= ttlMillis;
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.entity.Category;
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import com.example.scheme.finder.repository.CategoryRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Every category (inactive ones too, old schemes still point at them) as immutable values keyed by id.
+// Mappers resolve Scheme.category through here by id, which never initialises the lazy proxy.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryDictionary {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Map<Long, CategorySnapshot> categories = Map.of();
+
+    // Loaded before the context serves requests, so mappers never see an empty dictionary
+    @PostConstruct
+    public void reload() {
+        Map<Long, CategorySnapshot> loaded = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            loaded.put(category.getId(), new CategorySnapshot(category));
+        }
+        categories = Map.copyOf(loaded);
+        log.info("Category dictionary loaded: {} categories", loaded.size());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        Map<Long, CategorySnapshot> updated = new HashMap<>(categories);
+        updated.put(event.getCategory().getId(), new CategorySnapshot(event.getCategory()));
+        categories = Map.copyOf(updated);
+    }
+
+    // An id the dictionary has not seen yet is looked up by id; the entity passed in may be an
+    // uninitialised proxy outside any session, so only its id is ever read
+    public CategorySnapshot resolve(Category category) {
+        if (category == null) return null;
+        CategorySnapshot snapshot = categories.get(category.getId());
+        if (snapshot != null) return snapshot;
+        return categoryRepository.findById(category.getId())
+                .map(found -> remember(new CategorySnapshot(found)))
+                .orElse(null);
+    }
+
+    // A change event that landed while the lookup ran is newer, so it wins
+    private synchronized CategorySnapshot remember(CategorySnapshot snapshot) {
+        CategorySnapshot existing = categories.get(snapshot.getId());
+        if (existing != null) return existing;
+        Map<Long, CategorySnapshot> updated = new HashMap<>(categories);
+        updated.put(snapshot.getId(), snapshot);
+        categories = Map.copyOf(updated);
+        return snapshot;
+    }
+
+    @Getter
+    public static final class CategorySnapshot {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final String iconUrl;
+        private final String colorCode;
+        private final Boolean isActive;
+        private final Integer displayOrder;
+
+        private CategorySnapshot(Category category) {
+            this.id = category.getId();
+            this.name = category.getName();
+            this.description = category.getDescription();
+            this.iconUrl = category.getIconUrl();
+            this.colorCode = category.getColorCode();
+            this.isActive = category.getIsActive();
+            this.displayOrder = category.getDisplayOrder();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.event.SavedSchemeChangedEvent;
+import com.example.scheme.finder.repository.SavedSchemeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Sorted saved-scheme ids per user, so list mappers answer isSaved with a binary search instead of a query per row.
+// The least recently used users are evicted once the cache is full.
+@Component
+@RequiredArgsConstructor
+public class SavedSchemeIdCache {
+
+    private final SavedSchemeRepository savedSchemeRepository;
+
+    @Value("${app.cache.saved-schemes.max-users:50000}")
+    private int maxUsers;
+
+    private BoundedCache<Long, long[]> savedIds;
+
+    @PostConstruct
+    void init() {
+        savedIds = new BoundedCache<>(maxUsers, 0);
+    }
+
+    public boolean isSaved(Long userId, Long schemeId) {
+        if (userId == null || schemeId == null) return false;
+        return Arrays.binarySearch(savedSchemeIds(userId), schemeId) >= 0;
+    }
+
+    // A load that raced a save/unsave commit is detached by the invalidation and never stored
+    public long[] savedSchemeIds(Long userId) {
+        return savedIds.get(userId, this::load);
+    }
+
+    @TransactionalEventListener
+    public void onSavedSchemeChanged(SavedSchemeChangedEvent event) {
+        savedIds.invalidate(event.getUserId());
+    }
+
+    private long[] load(Long userId) {
+        List<Long> schemeIds = savedSchemeRepository.findSchemeIdsByUserId(userId);
+        long[] ids = new long[schemeIds.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = schemeIds.get(i);
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.CategoryRepository;
+import com.example.scheme.finder.repository.SchemeRepository;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Active-scheme counts per category and per state, kept in memory. Each active scheme's placement
+// is remembered so an update can take back its old contribution before adding the new one, which
+// also makes replaying an event harmless. A periodic GROUP BY reconcile re-seeds on any drift.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemeCounters {
+
+    private final SchemeRepository schemeRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final Map<Long, Placement> placements = new HashMap<>();
+    private volatile Counts counts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        placements.clear();
+        for (Object[] row : schemeRepository.findActiveSchemePlacements()) {
+            placements.put((Long) row[0], new Placement((Long) row[1], (Scheme.SchemeLevel) row[2], (String) row[3]));
+        }
+        counts = Counts.of(placements);
+        log.info("Scheme counters seeded: {} active schemes", placements.size());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onSchemeChanged(SchemeChangedEvent event) {
+        if (counts == null) return;
+        Scheme scheme = event.getScheme();
+        Placement placement = event.getType() != SchemeChangedEvent.ChangeType.DELETED
+                && scheme.getStatus() == Scheme.SchemeStatus.ACTIVE
+                ? Placement.of(scheme) : null;
+        Placement previous = placement != null
+                ? placements.put(scheme.getId(), placement)
+                : placements.remove(scheme.getId());
+        if (Objects.equals(previous, placement)) return;
+        counts = counts.move(previous, placement);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.scheme-counters.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.cache.scheme-counters.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        Counts current = counts;
+        if (current == null) return;
+        Map<Long, Long> byCategory = toMap(categoryRepository.countActiveSchemesGroupByCategory());
+        Map<String, Long> byState = toMap(schemeRepository.countSchemesByState());
+        // Only trust the comparison if nothing was applied while the queries ran
+        if (current != counts) return;
+        if (!byCategory.equals(current.byCategory) || !byState.equals(current.byState)) {
+            log.warn("Scheme counters drifted from the database, re-seeding");
+            seed();
+        }
+    }
+
+    public long activeSchemes() {
+        Counts current = counts;
+        return current != null ? current.total : schemeRepository.countActiveSchemes();
+    }
+
+    public long activeSchemesInCategory(Long categoryId) {
+        Counts current = counts;
+        if (current == null) return categoryRepository.countActiveSchemesByCategoryId(categoryId);
+        return current.byCategory.getOrDefault(categoryId, 0L);
+    }
+
+    public long activeSchemesByLevel(Scheme.SchemeLevel level) {
+        Counts current = counts;
+        if (current == null) return schemeRepository.countActiveSchemesByLevel(level);
+        return level == Scheme.SchemeLevel.STATE ? current.stateLevel : current.total - current.stateLevel;
+    }
+
+    public Map<String, Long> activeSchemesByState() {
+        Counts current = counts;
+        return current != null ? current.byState : toMap(schemeRepository.countSchemesByState());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Map<K, Long> toMap(List<Object[]> rows) {
+        Map<K, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) map.put((K) row[0], (Long) row[1]);
+        }
+        return map;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Placement {
+        private final Long categoryId;
+        private final Scheme.SchemeLevel level;
+        private final String stateName;
+
+        static Placement of(Scheme scheme) {
+            Long categoryId = scheme.getCategory() != null ? scheme.getCategory().getId() : null;
+            return new Placement(categoryId, scheme.getSchemeLevel(), scheme.getStateName());
+        }
+
+        // Rows without a state name are left out, matching what countSchemesByState can be compared against
+        boolean countedByState() {
+            return level == Scheme.SchemeLevel.STATE && stateName != null;
+        }
+    }
+
+    // Immutable so readers never see a half-applied move
+    private static final class Counts {
+        private final long total;
+        private final long stateLevel;
+        private final Map<Long, Long> byCategory;
+        private final Map<String, Long> byState;
+
+        private Counts(long total, long stateLevel, Map<Long, Long> byCategory, Map<String, Long> byState) {
+            this.total = total;
+            this.stateLevel = stateLevel;
+            this.byCategory = byCategory;
+            this.byState = byState;
+        }
+
+        static Counts of(Map<Long, Placement> placements) {
+            Counts empty = new Counts(0, 0, Map.of(), Map.of());
+            return empty.apply(placements.values(), List.of());
+        }
+
+        Counts move(Placement from, Placement to) {
+            return apply(to != null ? List.of(to) : List.of(), from != null ? List.of(from) : List.of());
+        }
+
+        private Counts apply(Collection<Placement> added, Collection<Placement> removed) {
+            Map<Long, Long> byCategory = new HashMap<>(this.byCategory);
+            Map<String, Long> byState = new HashMap<>(this.byState);
+            long total = this.total + added.size() - removed.size();
+            long stateLevel = this.stateLevel;
+            for (Placement placement : removed) {
+                stateLevel -= adjust(byCategory, byState, placement, -1);
+            }
+            for (Placement placement : added) {
+                stateLevel += adjust(byCategory, byState, placement, 1);
+            }
+            return new Counts(total, stateLevel, Collections.unmodifiableMap(byCategory), Collections.unmodifiableMap(byState));
+        }
+
+        // Returns 1 when the placement is a state-level scheme
+        private static int adjust(Map<Long, Long> byCategory, Map<String, Long> byState, Placement placement, long delta) {
+            if (placement.getCategoryId() != null) adjust(byCategory, placement.getCategoryId(), delta);
+            if (placement.countedByState()) adjust(byState, placement.getStateName(), delta);
+            return placement.getLevel() == Scheme.SchemeLevel.STATE ? 1 : 0;
+        }
+
+        private static <K> void adjust(Map<K, Long> map, K key, long delta) {
+            map.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.LongFunction;
+
+// User-independent SchemeResponse per scheme id, built as an anonymous caller would see it; the
+// caller overlays isSaved. Entries expire after a TTL so the embedded viewCount does not freeze; any scheme or
+// category change drops them. A load that raced an invalidation is served but not stored. Expired and
+// least recently used entries make room for new ones once the cache is full.
+@Component
+public class SchemeDetailCache {
+
+    @Value("${app.cache.scheme-detail.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${app.cache.scheme-detail.ttl-ms:600000}")
+    private long ttlMillis;
+
+    private BoundedCache<Long, SchemeDto.SchemeResponse> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new BoundedCache<>(maxEntries, ttlMillis);
+    }
+
+    public SchemeDto.SchemeResponse get(long schemeId, LongFunction<SchemeDto.SchemeResponse> loader) {
+        return entries.get(schemeId, loader::apply);
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        entries.invalidate(event.getScheme().getId());
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        entries.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.event.SchemeViewsFlushedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind view counts. Detail reads only bump a per-scheme LongAdder; the scheduler folds the
+// deltas since the last flush into one CASE-keyed UPDATE per chunk. Adders are never reset, so an
+// increment racing a flush is simply picked up by the next one, and a failed flush is retried.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemeViewCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.schemes.view-count.flush-chunk-size:500}")
+    private int chunkSize;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public void recordView(Long schemeId) {
+        counters.computeIfAbsent(schemeId, id -> new Counter()).views.increment();
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        if (event.getType() == SchemeChangedEvent.ChangeType.DELETED) {
+            counters.remove(event.getScheme().getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.schemes.view-count.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("View count flush failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    // Rows are updated in ascending id order so the lock order never varies between flushes
+    synchronized void flush() {
+        TreeMap<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            long delta = entry.getValue().pending();
+            if (delta > 0) deltas.put(entry.getKey(), delta);
+        }
+        if (deltas.isEmpty()) return;
+
+        List<Map.Entry<Long, Long>> chunk = new ArrayList<>(chunkSize);
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            chunk.add(delta);
+            if (chunk.size() == chunkSize) {
+                write(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) write(chunk);
+        log.debug("Flushed view counts for {} schemes", deltas.size());
+    }
+
+    private void write(List<Map.Entry<Long, Long>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE schemes SET view_count = view_count + CASE id");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (Map.Entry<Long, Long> delta : chunk) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(delta.getKey());
+            args.add(delta.getValue());
+        }
+        sql.append(" ELSE 0 END WHERE id IN (");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(chunk.get(i).getKey());
+        }
+        sql.append(')');
+        jdbcTemplate.update(sql.toString(), args.toArray());
+
+        Map<Long, Long> written = new HashMap<>();
+        for (Map.Entry<Long, Long> delta : chunk) {
+            Counter counter = counters.get(delta.getKey());
+            if (counter != null) counter.flushed += delta.getValue();
+            written.put(delta.getKey(), delta.getValue());
+        }
+        eventPublisher.publishEvent(new SchemeViewsFlushedEvent(written));
+    }
+
+    private static final class Counter {
+        private final LongAdder views = new LongAdder();
+        // Only touched by the flusher, which is synchronized
+        private long flushed;
+
+        long pending() {
+            return views.sum() - flushed;
+        }
+    }
+}
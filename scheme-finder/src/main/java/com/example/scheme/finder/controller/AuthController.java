@@ -50,7 +50,7 @@ public class AuthController {
     @Operation(summary = "Logout current user")
     public ResponseEntity<ApiResponse<Void>> logout(
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        authService.logout(userPrincipal.getUser());
+        authService.logout(userPrincipal.getId());
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
     }
 }
\ No newline at end of file
@@ -3,21 +3,30 @@ package com.example.scheme.finder.controller;
 import com.example.scheme.finder.dto.ApiResponse;
 import com.example.scheme.finder.dto.PagedResponse;
 import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.eligibility.EligibilityBatch;
+import com.example.scheme.finder.search.SuggestionIndex;
+import com.example.scheme.finder.security.RateLimiter;
 import com.example.scheme.finder.security.UserPrincipal;
 import com.example.scheme.finder.service.SchemeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -27,6 +36,7 @@ import java.util.List;
 public class SchemeController {
 
     private final SchemeService schemeService;
+    private final RateLimiter rateLimiter;
 
     @GetMapping
     @Operation(summary = "Get all active schemes with pagination")
@@ -35,13 +45,14 @@ public class SchemeController {
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeFacets,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         Long userId = userPrincipal != null ? userPrincipal.getId() : null;
 
-        return ResponseEntity.ok(ApiResponse.success(schemeService.getAllSchemes(pageable, userId)));
+        return ResponseEntity.ok(ApiResponse.success(schemeService.getAllSchemes(pageable, userId, includeFacets)));
     }
 
     @GetMapping("/{id}")
@@ -50,7 +61,17 @@ public class SchemeController {
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         Long userId = userPrincipal != null ? userPrincipal.getId() : null;
-        return ResponseEntity.ok(ApiResponse.success(schemeService.getSchemeById(id, userId)));
+        // Every open of the detail page counts as a view, including a conditional GET that Spring
+        // answers with 304: with no-cache the browser revalidates on each visit, so skipping those
+        // would stop counting anyone who has seen the scheme before
+        SchemeDto.SchemeResponse scheme = schemeService.getSchemeById(id, userId);
+        // Conditional GETs are answered with 304 by Spring once these validators are set
+        LocalDateTime modified = scheme.getUpdatedAt() != null ? scheme.getUpdatedAt() : scheme.getCreatedAt();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etagOf(scheme, modified))
+                .lastModified(modified.atZone(ZoneId.systemDefault()))
+                .body(ApiResponse.success(scheme));
     }
 
     @GetMapping("/featured")
@@ -61,16 +82,45 @@ public class SchemeController {
         return ResponseEntity.ok(ApiResponse.success(schemeService.getFeaturedSchemes(userId)));
     }
 
+    @GetMapping("/trending")
+    @Operation(summary = "Get schemes ranked by recent, time-decayed views and saves")
+    public ResponseEntity<ApiResponse<List<SchemeDto.TrendingScheme>>> getTrendingSchemes(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(schemeService.getTrendingSchemes(limit)));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocomplete scheme titles, tags and categories by prefix")
+    public ResponseEntity<ApiResponse<List<SchemeDto.Suggestion>>> suggestSchemes(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        int clamped = Math.max(1, Math.min(limit, SuggestionIndex.MAX_SUGGESTIONS));
+        return ResponseEntity.ok(ApiResponse.success(schemeService.suggestSchemes(q, clamped)));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filter schemes by any combination of category, state, level, benefit type and keyword")
+    public ResponseEntity<ApiResponse<SchemeDto.FilterResponse>> filterSchemes(
+            SchemeDto.SchemeFilterRequest filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
+        Long userId = userPrincipal != null ? userPrincipal.getId() : null;
+        return ResponseEntity.ok(ApiResponse.success(schemeService.filterSchemes(filter, pageable, userId)));
+    }
+
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Get schemes by category")
     public ResponseEntity<ApiResponse<PagedResponse<SchemeDto.SchemeSummary>>> getSchemesByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "false") boolean includeFacets,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Long userId = userPrincipal != null ? userPrincipal.getId() : null;
-        return ResponseEntity.ok(ApiResponse.success(schemeService.getSchemesByCategory(categoryId, pageable, userId)));
+        return ResponseEntity.ok(ApiResponse.success(schemeService.getSchemesByCategory(categoryId, pageable, userId, includeFacets)));
     }
 
     @GetMapping("/state/{stateName}")
@@ -79,10 +129,11 @@ public class SchemeController {
             @PathVariable String stateName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "false") boolean includeFacets,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Long userId = userPrincipal != null ? userPrincipal.getId() : null;
-        return ResponseEntity.ok(ApiResponse.success(schemeService.getSchemesByState(stateName, pageable, userId)));
+        return ResponseEntity.ok(ApiResponse.success(schemeService.getSchemesByState(stateName, pageable, userId, includeFacets)));
     }
 
 //    @GetMapping("/search")
@@ -101,20 +152,22 @@ public class SchemeController {
     @Operation(summary = "Search schemes by keyword")
     public ResponseEntity<ApiResponse<PagedResponse<SchemeDto.SchemeSummary>>> searchSchemes(
             @RequestParam(required = false, defaultValue = "") String keyword,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "false") boolean includeFacets,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
         // If keyword is empty, return all schemes instead
         if (keyword.trim().isEmpty()) {
             Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
             Long userId = userPrincipal != null ? userPrincipal.getId() : null;
-            return ResponseEntity.ok(ApiResponse.success(schemeService.getAllSchemes(pageable, userId)));
+            return ResponseEntity.ok(ApiResponse.success(schemeService.getAllSchemes(pageable, userId, includeFacets)));
         }
 
         Pageable pageable = PageRequest.of(page, size);
         Long userId = userPrincipal != null ? userPrincipal.getId() : null;
-        return ResponseEntity.ok(ApiResponse.success(schemeService.searchSchemes(keyword, pageable, userId)));
+        return ResponseEntity.ok(ApiResponse.success(schemeService.searchSchemes(keyword, fuzzy, pageable, userId, includeFacets)));
     }
 
     @PostMapping("/eligible")
@@ -129,6 +182,31 @@ public class SchemeController {
         return ResponseEntity.ok(ApiResponse.success(schemeService.getEligibleSchemes(filter, pageable, userId)));
     }
 
+    @PostMapping(value = "/eligible", params = "explain=true")
+    @Operation(summary = "Rank all schemes against a profile with per-criterion pass/fail and a partial-match score")
+    public ResponseEntity<ApiResponse<PagedResponse<SchemeDto.EligibilityExplanation>>> explainEligibleSchemes(
+            @RequestBody SchemeDto.EligibilityFilterRequest filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Pageable pageable = PageRequest.of(page, size);
+        Long userId = userPrincipal != null ? userPrincipal.getId() : null;
+        return ResponseEntity.ok(ApiResponse.success(schemeService.explainEligibleSchemes(filter, pageable, userId)));
+    }
+
+    @PostMapping("/eligible/batch")
+    @Operation(summary = "Screen many profiles at once; streams one NDJSON line of eligible scheme ids per profile")
+    public ResponseEntity<StreamingResponseBody> getEligibleSchemesBatch(
+            @RequestBody List<SchemeDto.EligibilityFilterRequest> filters,
+            HttpServletRequest request) {
+        EligibilityBatch batch = schemeService.prepareEligibilityBatch(filters);
+        // The rate limit filter charged the request itself; the profiles draw on their own budget
+        rateLimiter.acquire(RateLimiter.RouteGroup.BATCH_PROFILES, request, filters.size());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(batch::writeTo);
+    }
+
     @GetMapping("/stats")
     @Operation(summary = "Get platform statistics")
     public ResponseEntity<ApiResponse<SchemeDto.SchemeStats>> getStats() {
@@ -145,6 +223,21 @@ public class SchemeController {
                 .body(ApiResponse.success("Scheme created successfully", schemeService.createScheme(request)));
     }
 
+    @GetMapping("/{id}/matches/job")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Progress of the user reverse-matching job started when the scheme was created (Admin only)")
+    public ResponseEntity<ApiResponse<SchemeDto.SchemeMatchJobStatus>> getSchemeMatchJob(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(schemeService.getSchemeMatchJob(id)));
+    }
+
+    @GetMapping("/analytics")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Most frequent search queries, eligibility profiles and viewed schemes (Admin only)")
+    public ResponseEntity<ApiResponse<SchemeDto.SearchAnalyticsReport>> getSearchAnalytics(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(schemeService.getSearchAnalytics(limit)));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     @Operation(summary = "Update a scheme (Admin only)")
@@ -161,4 +254,11 @@ public class SchemeController {
         schemeService.deleteScheme(id);
         return ResponseEntity.ok(ApiResponse.success("Scheme deleted successfully", null));
     }
+
+    // Weak, as the view count in the body drifts without changing what the scheme says. isSaved is
+    // kept in so a revalidation after saving or unsaving does not serve the old flag
+    private static String etagOf(SchemeDto.SchemeResponse scheme, LocalDateTime modified) {
+        return "W/\"" + scheme.getId() + "-" + modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                + (Boolean.TRUE.equals(scheme.getIsSaved()) ? "-s" : "") + "\"";
+    }
 }
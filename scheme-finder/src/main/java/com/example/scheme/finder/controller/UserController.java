@@ -2,8 +2,10 @@ package com.example.scheme.finder.controller;
 
 import com.example.scheme.finder.dto.ApiResponse;
 import com.example.scheme.finder.dto.PagedResponse;
+import com.example.scheme.finder.dto.SchemeDto;
 import com.example.scheme.finder.dto.UserDto;
 import com.example.scheme.finder.security.UserPrincipal;
+import com.example.scheme.finder.service.SchemeService;
 import com.example.scheme.finder.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final SchemeService schemeService;
 
     @GetMapping("/me")
     @Operation(summary = "Get current user profile")
@@ -37,6 +40,16 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success("Profile updated", userService.updateProfile(userPrincipal.getId(), request)));
     }
 
+    @GetMapping("/me/eligible-schemes")
+    @Operation(summary = "Get schemes the current user is eligible for, based on their saved profile")
+    public ResponseEntity<ApiResponse<PagedResponse<SchemeDto.SchemeSummary>>> getMyEligibleSchemes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(ApiResponse.success(
+                schemeService.getEligibleSchemesForUser(userPrincipal.getId(), PageRequest.of(page, size))));
+    }
+
     @PutMapping("/me/change-password")
     @Operation(summary = "Change password")
     public ResponseEntity<ApiResponse<Void>> changePassword(
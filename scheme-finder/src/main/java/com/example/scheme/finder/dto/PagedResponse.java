@@ -1,5 +1,6 @@
 package com.example.scheme.finder.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -20,6 +22,8 @@ public class PagedResponse<T> {
     private int totalPages;
     private boolean last;
     private boolean first;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Long>> facets;
 
     public static <T> PagedResponse<T> of(Page<T> page) {
         return PagedResponse.<T>builder()
@@ -7,15 +7,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class SchemeDto {
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class SchemeResponse {
@@ -52,6 +54,7 @@ public class SchemeDto {
         private Boolean isFeatured;
         private List<FaqResponse> faqs;
         private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
         private Boolean isSaved; // For authenticated users
     }
 
@@ -154,6 +157,123 @@ public class SchemeDto {
         private Long categoryId;
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EligibilityExplanation {
+        private SchemeSummary scheme;
+        private boolean eligible;
+        private double score;
+        private List<EligibilityCriterion> passedCriteria;
+        private List<EligibilityCriterion> failedCriteria;
+    }
+
+    public enum EligibilityCriterion {
+        AGE, GENDER, INCOME, DISABILITY, STUDENT, EMPLOYMENT, CATEGORY, STATE
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SchemeMatchJobStatus {
+        private Long schemeId;
+        private SchemeMatchJobState state;
+        private long usersScanned;
+        private long matches;
+        private long usersPerSecond;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+    }
+
+    public enum SchemeMatchJobState {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SchemeFilterRequest {
+        private Long categoryId;
+        private String state;
+        private Scheme.SchemeLevel level;
+        private String benefitType;
+        private String ministry;
+        private String keyword;
+        private Boolean fuzzy;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate launchedAfter;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FilterResponse {
+        private PagedResponse<SchemeSummary> results;
+        private FilterPath path;
+        private List<String> steps;
+    }
+
+    public enum FilterPath {
+        INDEX, INDEX_WITH_SPECIFICATION, SPECIFICATION
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String text;
+        private SuggestionType type;
+        private Long schemeId;
+        private Long categoryId;
+    }
+
+    public enum SuggestionType {
+        SCHEME, TAG, CATEGORY
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendingScheme {
+        private Long schemeId;
+        private String title;
+        private double score;
+        private long views;
+        private long saves;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeavyHitter {
+        private String key;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchAnalyticsReport {
+        private LocalDateTime since;
+        private long searches;
+        private long zeroResultSearches;
+        private long eligibilityChecks;
+        private long zeroResultEligibilityChecks;
+        private long schemeViews;
+        private List<HeavyHitter> topQueries;
+        private List<HeavyHitter> topZeroResultQueries;
+        private List<HeavyHitter> topEligibilityProfiles;
+        private List<HeavyHitter> topZeroResultEligibilityProfiles;
+        private List<HeavyHitter> topSchemes;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -163,6 +283,7 @@ public class SchemeDto {
         private Long activeSchemes;
         private Long centralSchemes;
         private Long stateSchemes;
+        private Map<String, Long> schemesByState;
         private Long totalUsers;
         private Long totalApplications;
     }
@@ -0,0 +1,189 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable columnar snapshot of every active scheme's rules. Ordinals follow ascending scheme id,
+// so scanning set bits in order yields ids in order. Discrete predicates are bitsets ANDed one
+// word at a time; income (and ages outside the precomputed range) are checked against the
+// primitive columns only for the bits that survive.
+final class CompiledRules {
+
+    static final int MAX_INDEXED_AGE = 120;
+
+    private static final Scheme.GenderEligibility[] GENDERS = Scheme.GenderEligibility.values();
+    private static final SocialCategory[] CATEGORIES = SocialCategory.values();
+
+    final long version;
+    final long[] schemeIds;
+    private final int[] minAges;
+    private final int[] maxAges;
+    private final double[] maxIncomes;
+    private final long[] all;
+    private final long[][] byAge;
+    private final long[][] byGender;
+    private final long[] allowsDisabled;
+    private final long[] allowsStudents;
+    private final long[] allowsEmployed;
+    // Category and state sets already include the schemes that place no restriction
+    private final long[][] byCategory;
+    private final long[] anyState;
+    private final Map<String, long[]> byState = new HashMap<>();
+
+    private CompiledRules(long version, int size) {
+        this.version = version;
+        int words = Math.max(1, (size + 63) >>> 6);
+        schemeIds = new long[size];
+        minAges = new int[size];
+        maxAges = new int[size];
+        maxIncomes = new double[size];
+        all = new long[words];
+        byAge = new long[MAX_INDEXED_AGE + 1][words];
+        byGender = new long[GENDERS.length][words];
+        allowsDisabled = new long[words];
+        allowsStudents = new long[words];
+        allowsEmployed = new long[words];
+        byCategory = new long[CATEGORIES.length][words];
+        anyState = new long[words];
+    }
+
+    // Rules must be in ascending scheme id order
+    static CompiledRules compile(long version, Collection<SchemeRule> rules) {
+        CompiledRules compiled = new CompiledRules(version, rules.size());
+        int ordinal = 0;
+        for (SchemeRule rule : rules) {
+            int word = ordinal >>> 6;
+            long bit = 1L << ordinal;
+            compiled.schemeIds[ordinal] = rule.schemeId;
+            compiled.minAges[ordinal] = rule.minAge;
+            compiled.maxAges[ordinal] = rule.maxAge;
+            compiled.maxIncomes[ordinal] = rule.maxAnnualIncome;
+            compiled.all[word] |= bit;
+
+            int from = Math.max(0, rule.minAge);
+            int to = Math.min(MAX_INDEXED_AGE, rule.maxAge);
+            for (int age = from; age <= to; age++) {
+                compiled.byAge[age][word] |= bit;
+            }
+            if (rule.gender != null) compiled.byGender[rule.gender.ordinal()][word] |= bit;
+            if (rule.allowsDisabled) compiled.allowsDisabled[word] |= bit;
+            if (rule.allowsStudents) compiled.allowsStudents[word] |= bit;
+            if (rule.allowsEmployed) compiled.allowsEmployed[word] |= bit;
+            for (SocialCategory category : CATEGORIES) {
+                if ((rule.categoryMask & (1 << category.ordinal())) != 0) compiled.byCategory[category.ordinal()][word] |= bit;
+            }
+            if (rule.states == null) {
+                compiled.anyState[word] |= bit;
+            } else {
+                for (String state : rule.states) {
+                    compiled.byState.computeIfAbsent(state, s -> new long[compiled.all.length])[word] |= bit;
+                }
+            }
+            ordinal++;
+        }
+        return compiled;
+    }
+
+    int size() {
+        return schemeIds.length;
+    }
+
+    // Feeds matching ordinals to the collector in ascending order and returns the total match count
+    int evaluate(EligibilityProfile profile, Collector collector) {
+        Integer age = profile.getAge();
+        long[] ageBits = age != null && age >= 0 && age <= MAX_INDEXED_AGE ? byAge[age] : null;
+        boolean checkAgeColumns = age != null && ageBits == null;
+        long[] genderBits = profile.getGender() != null ? byGender[profile.getGender().ordinal()] : null;
+        long[] anyGender = byGender[Scheme.GenderEligibility.ALL.ordinal()];
+        Double income = profile.getAnnualIncome();
+        long[] categoryBits = profile.getCategory() != null ? byCategory[profile.getCategory().ordinal()] : null;
+        boolean checkState = profile.getState() != null;
+        long[] stateBits = checkState ? byState.get(profile.getState()) : null;
+
+        int matches = 0;
+        for (int i = 0; i < all.length; i++) {
+            long word = all[i];
+            if (ageBits != null) word &= ageBits[i];
+            if (genderBits != null) word &= anyGender[i] | genderBits[i];
+            if (profile.isDisabled()) word &= allowsDisabled[i];
+            if (profile.isStudent()) word &= allowsStudents[i];
+            if (profile.isEmployed()) word &= allowsEmployed[i];
+            if (categoryBits != null) word &= categoryBits[i];
+            if (checkState) word &= anyState[i] | (stateBits != null ? stateBits[i] : 0L);
+
+            while (word != 0) {
+                int ordinal = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (checkAgeColumns && (minAges[ordinal] > age || maxAges[ordinal] < age)) continue;
+                if (income != null && maxIncomes[ordinal] < income) continue;
+                collector.accept(matches++, ordinal);
+            }
+        }
+        return matches;
+    }
+
+    // Failed-criterion bitmask (bit = EligibilityCriterion ordinal) for every scheme, indexed by ordinal.
+    // Same vectors as evaluate, but each criterion's word is kept separately instead of ANDed away.
+    int[] failures(EligibilityProfile profile) {
+        Integer age = profile.getAge();
+        long[] ageBits = age != null && age >= 0 && age <= MAX_INDEXED_AGE ? byAge[age] : null;
+        boolean checkAgeColumns = age != null && ageBits == null;
+        long[] genderBits = profile.getGender() != null ? byGender[profile.getGender().ordinal()] : null;
+        long[] anyGender = byGender[Scheme.GenderEligibility.ALL.ordinal()];
+        Double income = profile.getAnnualIncome();
+        long[] categoryBits = profile.getCategory() != null ? byCategory[profile.getCategory().ordinal()] : null;
+        boolean checkState = profile.getState() != null;
+        long[] stateBits = checkState ? byState.get(profile.getState()) : null;
+
+        int[] failed = new int[size()];
+        for (int i = 0; i < all.length; i++) {
+            long ageOk = ageBits != null ? ageBits[i] : -1L;
+            long genderOk = genderBits != null ? anyGender[i] | genderBits[i] : -1L;
+            long disabledOk = profile.isDisabled() ? allowsDisabled[i] : -1L;
+            long studentOk = profile.isStudent() ? allowsStudents[i] : -1L;
+            long employedOk = profile.isEmployed() ? allowsEmployed[i] : -1L;
+            long categoryOk = categoryBits != null ? categoryBits[i] : -1L;
+            long stateOk = checkState ? anyState[i] | (stateBits != null ? stateBits[i] : 0L) : -1L;
+
+            long word = all[i];
+            while (word != 0) {
+                long bit = word & -word;
+                int ordinal = (i << 6) + Long.numberOfTrailingZeros(word);
+                word ^= bit;
+
+                int mask = 0;
+                if ((ageOk & bit) == 0 || (checkAgeColumns && (minAges[ordinal] > age || maxAges[ordinal] < age))) {
+                    mask |= 1 << SchemeDto.EligibilityCriterion.AGE.ordinal();
+                }
+                if ((genderOk & bit) == 0) mask |= 1 << SchemeDto.EligibilityCriterion.GENDER.ordinal();
+                if (income != null && maxIncomes[ordinal] < income) mask |= 1 << SchemeDto.EligibilityCriterion.INCOME.ordinal();
+                if ((disabledOk & bit) == 0) mask |= 1 << SchemeDto.EligibilityCriterion.DISABILITY.ordinal();
+                if ((studentOk & bit) == 0) mask |= 1 << SchemeDto.EligibilityCriterion.STUDENT.ordinal();
+                if ((employedOk & bit) == 0) mask |= 1 << SchemeDto.EligibilityCriterion.EMPLOYMENT.ordinal();
+                if ((categoryOk & bit) == 0) mask |= 1 << SchemeDto.EligibilityCriterion.CATEGORY.ordinal();
+                if ((stateOk & bit) == 0) mask |= 1 << SchemeDto.EligibilityCriterion.STATE.ordinal();
+                failed[ordinal] = mask;
+            }
+        }
+        return failed;
+    }
+
+    long[] matchingIds(EligibilityProfile profile) {
+        long[][] ids = {new long[Math.min(64, Math.max(1, size()))]};
+        int count = evaluate(profile, (rank, ordinal) -> {
+            if (rank == ids[0].length) ids[0] = Arrays.copyOf(ids[0], rank * 2);
+            ids[0][rank] = schemeIds[ordinal];
+        });
+        return Arrays.copyOf(ids[0], count);
+    }
+
+    @FunctionalInterface
+    interface Collector {
+        void accept(int rank, int ordinal);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.scheme.finder.eligibility;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// A screening batch bound to the rules snapshot taken when it was accepted. Profiles are evaluated
+// chunk by chunk on the fork-join pool and written as NDJSON in request order while later chunks
+// are still pending, so the client sees results before the whole batch is done.
+public class EligibilityBatch {
+
+    private static final int CHUNK_SIZE = 256;
+    private static final int SEQUENTIAL_THRESHOLD = 16;
+
+    private final CompiledRules snapshot;
+    private final List<EligibilityProfile> profiles;
+    private final ForkJoinPool pool;
+
+    EligibilityBatch(CompiledRules snapshot, List<EligibilityProfile> profiles, ForkJoinPool pool) {
+        this.snapshot = snapshot;
+        this.profiles = profiles;
+        this.pool = pool;
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(256);
+        for (int start = 0; start < profiles.size(); start += CHUNK_SIZE) {
+            int end = Math.min(start + CHUNK_SIZE, profiles.size());
+            long[][] results = new long[end - start][];
+            pool.invoke(new Evaluate(results, start, start, end));
+
+            for (int i = 0; i < results.length; i++) {
+                line.setLength(0);
+                line.append("{\"index\":").append(start + i)
+                        .append(",\"count\":").append(results[i].length)
+                        .append(",\"schemeIds\":[");
+                for (int j = 0; j < results[i].length; j++) {
+                    if (j > 0) line.append(',');
+                    line.append(results[i][j]);
+                }
+                line.append("]}\n");
+                writer.write(line.toString());
+            }
+            writer.flush();
+        }
+        writer.flush();
+    }
+
+    private final class Evaluate extends RecursiveAction {
+        private final long[][] results;
+        private final int base;
+        private final int from;
+        private final int to;
+
+        private Evaluate(long[][] results, int base, int from, int to) {
+            this.results = results;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i - base] = snapshot.matchingIds(profiles.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Evaluate(results, base, from, middle), new Evaluate(results, base, middle, to));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.exception.BadRequestException;
+import com.example.scheme.finder.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EligibilityBatchEvaluator {
+
+    private final EligibilityEngine eligibilityEngine;
+
+    @Value("${app.eligibility.batch.max-profiles:5000}")
+    private int maxProfiles;
+
+    // 0 means one worker per available processor
+    @Value("${app.eligibility.batch.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void start() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(workers);
+        log.info("Eligibility batch pool started with {} workers", workers);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdown();
+    }
+
+    public EligibilityBatch prepare(List<EligibilityProfile> profiles) {
+        if (profiles.size() > maxProfiles) {
+            throw new BadRequestException("A batch may contain at most " + maxProfiles + " profiles");
+        }
+        CompiledRules snapshot = eligibilityEngine.snapshot();
+        if (snapshot == null) {
+            throw new ServiceUnavailableException("Eligibility rules are still loading, please retry shortly");
+        }
+        return new EligibilityBatch(snapshot, profiles, pool);
+    }
+}
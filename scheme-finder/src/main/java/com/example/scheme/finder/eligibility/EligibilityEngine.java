@@ -0,0 +1,144 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.SchemeRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Answers eligibility queries from a compiled snapshot instead of SchemeRepository.findEligibleSchemes.
+// Readers never lock: every mutation recompiles from the in-memory rules and swaps the snapshot.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EligibilityEngine {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final SchemeRepository schemeRepository;
+
+    private final TreeMap<Long, SchemeRule> rules = new TreeMap<>();
+    private long version;
+    private volatile CompiledRules compiled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        rules.clear();
+        long lastId = 0L;
+        Slice<Scheme> batch;
+        do {
+            batch = schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                    Scheme.SchemeStatus.ACTIVE, lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Scheme scheme : batch) {
+                rules.put(scheme.getId(), SchemeRule.of(scheme));
+                lastId = scheme.getId();
+            }
+        } while (batch.hasNext());
+        compiled = CompiledRules.compile(++version, rules.values());
+        log.info("Eligibility engine compiled: {} schemes in {} ms", rules.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onSchemeChanged(SchemeChangedEvent event) {
+        if (compiled == null) return;
+        Scheme scheme = event.getScheme();
+        rules.remove(scheme.getId());
+        if (event.getType() != SchemeChangedEvent.ChangeType.DELETED
+                && scheme.getStatus() == Scheme.SchemeStatus.ACTIVE) {
+            rules.put(scheme.getId(), SchemeRule.of(scheme));
+        }
+        compiled = CompiledRules.compile(++version, rules.values());
+    }
+
+    public boolean isReady() {
+        return compiled != null;
+    }
+
+    // Null until the first compile; callers that need several answers from one version hold on to it
+    CompiledRules snapshot() {
+        return compiled;
+    }
+
+    // One page of eligible scheme ids in ascending id order
+    public Optional<MatchResult> match(EligibilityProfile profile, int offset, int limit) {
+        CompiledRules snapshot = compiled;
+        if (snapshot == null) return Optional.empty();
+
+        List<Long> page = new ArrayList<>(Math.min(limit, snapshot.size()));
+        int total = snapshot.evaluate(profile, (rank, ordinal) -> {
+            if (rank >= offset && page.size() < limit) page.add(snapshot.schemeIds[ordinal]);
+        });
+        return Optional.of(new MatchResult(page, total));
+    }
+
+    // Every eligible scheme id, ascending
+    public Optional<long[]> matchAll(EligibilityProfile profile) {
+        CompiledRules snapshot = compiled;
+        return snapshot != null ? Optional.of(snapshot.matchingIds(profile)) : Optional.empty();
+    }
+
+    // Every active scheme ranked by how few criteria it fails (eligible ones first), ascending id within a rank
+    public Optional<ExplainResult> explain(EligibilityProfile profile, int offset, int limit) {
+        CompiledRules snapshot = compiled;
+        if (snapshot == null) return Optional.empty();
+
+        int[] failed = snapshot.failures(profile);
+        int[] starts = new int[Integer.SIZE + 1];
+        for (int mask : failed) {
+            starts[Integer.bitCount(mask) + 1]++;
+        }
+        int eligible = starts[1];
+        for (int rank = 1; rank < starts.length; rank++) {
+            starts[rank] += starts[rank - 1];
+        }
+
+        // Counting sort by failure count; ordinals already run in id order, so the sort is stable by id
+        int[] order = new int[failed.length];
+        for (int ordinal = 0; ordinal < failed.length; ordinal++) {
+            order[starts[Integer.bitCount(failed[ordinal])]++] = ordinal;
+        }
+
+        List<Explanation> page = new ArrayList<>(Math.min(limit, Math.max(0, order.length - offset)));
+        for (int i = offset; i < order.length && page.size() < limit; i++) {
+            int ordinal = order[i];
+            page.add(new Explanation(snapshot.schemeIds[ordinal], failed[ordinal]));
+        }
+        return Optional.of(new ExplainResult(page, order.length, eligible, profile.evaluatedCriteria()));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ExplainResult {
+        private final List<Explanation> explanations;
+        private final long totalSchemes;
+        private final long eligibleSchemes;
+        private final int evaluatedCriteria;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Explanation {
+        private final long schemeId;
+        private final int failedCriteria;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class MatchResult {
+        private final List<Long> schemeIds;
+        private final long totalMatches;
+    }
+}
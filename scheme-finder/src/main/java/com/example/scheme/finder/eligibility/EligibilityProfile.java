@@ -0,0 +1,87 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.entity.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Normalised form of an eligibility query; null means "not specified" and matches every scheme
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class EligibilityProfile {
+
+    private final Integer age;
+    private final Scheme.GenderEligibility gender;
+    private final Double annualIncome;
+    private final boolean disabled;
+    private final boolean student;
+    private final boolean employed;
+    private final SocialCategory category;
+    // Normalised state name
+    private final String state;
+
+    public static EligibilityProfile from(SchemeDto.EligibilityFilterRequest filter) {
+        Scheme.GenderEligibility gender = null;
+        if (filter.getGender() != null && !filter.getGender().isEmpty()) {
+            try {
+                gender = Scheme.GenderEligibility.valueOf(filter.getGender().toUpperCase());
+            } catch (IllegalArgumentException ignored) {}
+        }
+        return new EligibilityProfile(
+                filter.getAge(),
+                gender,
+                filter.getAnnualIncome(),
+                Boolean.TRUE.equals(filter.getIsDisabled()),
+                Boolean.TRUE.equals(filter.getIsStudent()),
+                Boolean.TRUE.equals(filter.getIsEmployed()),
+                SocialCategory.parse(filter.getCategory()),
+                normalizeState(filter.getState()));
+    }
+
+    // A gender of OTHER only qualifies for schemes open to all genders
+    public static EligibilityProfile of(User user) {
+        Scheme.GenderEligibility gender = null;
+        if (user.getGender() != null) {
+            gender = user.getGender() == User.Gender.OTHER
+                    ? Scheme.GenderEligibility.ALL
+                    : Scheme.GenderEligibility.valueOf(user.getGender().name());
+        }
+        return new EligibilityProfile(
+                user.getAge(),
+                gender,
+                user.getAnnualIncome(),
+                Boolean.TRUE.equals(user.getIsDisabled()),
+                Boolean.TRUE.equals(user.getIsStudent()),
+                Boolean.TRUE.equals(user.getIsEmployed()),
+                SocialCategory.parse(user.getCategory()),
+                normalizeState(user.getState()));
+    }
+
+    private static String normalizeState(String state) {
+        return state != null && !state.trim().isEmpty() ? SchemeRule.normalizeState(state) : null;
+    }
+
+    // Bitmask (bit = EligibilityCriterion ordinal) of the criteria this profile actually constrains
+    public int evaluatedCriteria() {
+        int mask = 0;
+        if (age != null) mask |= 1 << SchemeDto.EligibilityCriterion.AGE.ordinal();
+        if (gender != null) mask |= 1 << SchemeDto.EligibilityCriterion.GENDER.ordinal();
+        if (annualIncome != null) mask |= 1 << SchemeDto.EligibilityCriterion.INCOME.ordinal();
+        if (disabled) mask |= 1 << SchemeDto.EligibilityCriterion.DISABILITY.ordinal();
+        if (student) mask |= 1 << SchemeDto.EligibilityCriterion.STUDENT.ordinal();
+        if (employed) mask |= 1 << SchemeDto.EligibilityCriterion.EMPLOYMENT.ordinal();
+        if (category != null) mask |= 1 << SchemeDto.EligibilityCriterion.CATEGORY.ordinal();
+        if (state != null) mask |= 1 << SchemeDto.EligibilityCriterion.STATE.ordinal();
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return "age=" + age + ", gender=" + gender + ", annualIncome=" + annualIncome
+                + ", disabled=" + disabled + ", student=" + student + ", employed=" + employed
+                + ", category=" + category + ", state=" + state;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reverse matching: when a scheme is published, walk the active users in keyset order, test the
+// scheme's rules against each profile in parallel and record the qualifying users in scheme_matches.
+// Jobs run one at a time on their own thread so a burst of new schemes cannot starve the pool.
+@Component
+@Slf4j
+public class SchemeMatchJobRunner {
+
+    private static final String INSERT_MATCH =
+            "INSERT IGNORE INTO scheme_matches (scheme_id, user_id, matched_at) VALUES (?, ?, ?)";
+    private static final String DELETE_MATCHES = "DELETE FROM scheme_matches WHERE scheme_id = ?";
+    private static final int MAX_TRACKED_JOBS = 100;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter usersScanned;
+    private final Counter matchesWritten;
+    private final Timer jobTimer;
+    private final AtomicInteger pendingJobs = new AtomicInteger();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheme-match-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Progress> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Progress> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    });
+
+    @Value("${app.scheme-matches.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.scheme-matches.batch-size:500}")
+    private int batchSize;
+
+    public SchemeMatchJobRunner(UserRepository userRepository, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.usersScanned = meterRegistry.counter("scheme.matches.users.scanned");
+        this.matchesWritten = meterRegistry.counter("scheme.matches.written");
+        this.jobTimer = meterRegistry.timer("scheme.matches.job.duration");
+        meterRegistry.gauge("scheme.matches.jobs.pending", pendingJobs);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        Scheme scheme = event.getScheme();
+        if (event.getType() == SchemeChangedEvent.ChangeType.DELETED) {
+            submit(() -> jdbcTemplate.update(DELETE_MATCHES, scheme.getId()));
+        } else if (event.getType() == SchemeChangedEvent.ChangeType.CREATED
+                && scheme.getStatus() == Scheme.SchemeStatus.ACTIVE) {
+            SchemeRule rule = SchemeRule.of(scheme);
+            Progress progress = new Progress(rule.schemeId);
+            jobs.put(rule.schemeId, progress);
+            submit(() -> run(rule, progress));
+        }
+    }
+
+    public Optional<SchemeDto.SchemeMatchJobStatus> getStatus(Long schemeId) {
+        Progress progress = jobs.get(schemeId);
+        return progress != null ? Optional.of(progress.toStatus()) : Optional.empty();
+    }
+
+    private void submit(Runnable task) {
+        pendingJobs.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                pendingJobs.decrementAndGet();
+            }
+        });
+    }
+
+    private void run(SchemeRule rule, Progress progress) {
+        progress.start();
+        Timer.Sample sample = Timer.start();
+        try {
+            long lastId = 0L;
+            Slice<User> chunk;
+            do {
+                chunk = userRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+                List<User> users = chunk.getContent();
+                if (users.isEmpty()) break;
+
+                long[] matched = users.parallelStream()
+                        .filter(user -> rule.matches(EligibilityProfile.of(user)))
+                        .mapToLong(User::getId)
+                        .toArray();
+                write(rule.schemeId, matched);
+
+                progress.advance(users.size(), matched.length);
+                usersScanned.increment(users.size());
+                matchesWritten.increment(matched.length);
+                lastId = users.get(users.size() - 1).getId();
+            } while (chunk.hasNext());
+
+            progress.finish(SchemeDto.SchemeMatchJobState.COMPLETED);
+            log.info("Scheme {} matched {} of {} users ({} users/s)", rule.schemeId,
+                    progress.matches, progress.scanned, progress.usersPerSecond());
+        } catch (RuntimeException ex) {
+            progress.finish(SchemeDto.SchemeMatchJobState.FAILED);
+            log.error("Reverse matching for scheme {} failed after {} users: {}", rule.schemeId, progress.scanned, ex.getMessage(), ex);
+        } finally {
+            sample.stop(jobTimer);
+        }
+    }
+
+    private void write(long schemeId, long[] userIds) {
+        if (userIds.length == 0) return;
+        Timestamp matchedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> rows = new ArrayList<>(userIds.length);
+        for (long userId : userIds) rows.add(userId);
+        jdbcTemplate.batchUpdate(INSERT_MATCH, rows, batchSize, (statement, userId) -> {
+            statement.setLong(1, schemeId);
+            statement.setLong(2, userId);
+            statement.setTimestamp(3, matchedAt);
+        });
+    }
+
+    private static final class Progress {
+        private final long schemeId;
+        private volatile SchemeDto.SchemeMatchJobState state = SchemeDto.SchemeMatchJobState.QUEUED;
+        private volatile long scanned;
+        private volatile long matches;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+
+        private Progress(long schemeId) {
+            this.schemeId = schemeId;
+        }
+
+        void start() {
+            startedAt = LocalDateTime.now();
+            startedNanos = System.nanoTime();
+            state = SchemeDto.SchemeMatchJobState.RUNNING;
+        }
+
+        // Only the job thread writes, so plain read-then-write on the volatiles is safe
+        void advance(int users, int matched) {
+            scanned += users;
+            matches += matched;
+        }
+
+        void finish(SchemeDto.SchemeMatchJobState finalState) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        long usersPerSecond() {
+            if (startedNanos == 0) return 0;
+            long elapsed = (finishedNanos != 0 ? finishedNanos : System.nanoTime()) - startedNanos;
+            return elapsed > 0 ? scanned * 1_000_000_000L / elapsed : 0;
+        }
+
+        SchemeDto.SchemeMatchJobStatus toStatus() {
+            return SchemeDto.SchemeMatchJobStatus.builder()
+                    .schemeId(schemeId)
+                    .state(state)
+                    .usersScanned(scanned)
+                    .matches(matches)
+                    .usersPerSecond(usersPerSecond())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
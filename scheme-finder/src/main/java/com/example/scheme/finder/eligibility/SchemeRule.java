@@ -0,0 +1,69 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.entity.Scheme;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Eligibility columns of one active scheme, detached from the entity
+final class SchemeRule {
+
+    final long schemeId;
+    final int minAge;
+    final int maxAge;
+    final Scheme.GenderEligibility gender;
+    final double maxAnnualIncome;
+    final boolean allowsDisabled;
+    final boolean allowsStudents;
+    final boolean allowsEmployed;
+    final int categoryMask;
+    // Normalised state names, or null when the scheme is open to every state
+    final Set<String> states;
+
+    private SchemeRule(Scheme scheme) {
+        schemeId = scheme.getId();
+        minAge = scheme.getMinAge() != null ? scheme.getMinAge() : Integer.MIN_VALUE;
+        maxAge = scheme.getMaxAge() != null ? scheme.getMaxAge() : Integer.MAX_VALUE;
+        gender = scheme.getGenderEligibility();
+        maxAnnualIncome = scheme.getMaxAnnualIncome() != null ? scheme.getMaxAnnualIncome() : Double.POSITIVE_INFINITY;
+        // A profile flag only excludes schemes that explicitly set the matching column to false
+        allowsDisabled = !Boolean.FALSE.equals(scheme.getIsForDisabled());
+        allowsStudents = !Boolean.FALSE.equals(scheme.getIsForStudents());
+        allowsEmployed = !Boolean.FALSE.equals(scheme.getIsForEmployed());
+        categoryMask = SocialCategory.maskOf(scheme.getEligibleCategories());
+        states = statesOf(scheme.getEligibleStates());
+    }
+
+    static String normalizeState(String state) {
+        return state.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> statesOf(String csv) {
+        if (csv == null) return null;
+        Set<String> states = new LinkedHashSet<>();
+        for (String part : csv.split(",")) {
+            String state = normalizeState(part);
+            if (state.equals("all")) return null;
+            if (!state.isEmpty()) states.add(state);
+        }
+        return states.isEmpty() ? null : states;
+    }
+
+    // Scalar form of CompiledRules.evaluate for checking one scheme against many profiles
+    boolean matches(EligibilityProfile profile) {
+        Integer age = profile.getAge();
+        if (age != null && (minAge > age || maxAge < age)) return false;
+        if (profile.getGender() != null && gender != Scheme.GenderEligibility.ALL && gender != profile.getGender()) return false;
+        if (profile.getAnnualIncome() != null && maxAnnualIncome < profile.getAnnualIncome()) return false;
+        if (profile.isDisabled() && !allowsDisabled) return false;
+        if (profile.isStudent() && !allowsStudents) return false;
+        if (profile.isEmployed() && !allowsEmployed) return false;
+        if (profile.getCategory() != null && (categoryMask & (1 << profile.getCategory().ordinal())) == 0) return false;
+        return profile.getState() == null || states == null || states.contains(profile.getState());
+    }
+
+    static SchemeRule of(Scheme scheme) {
+        return new SchemeRule(scheme);
+    }
+}
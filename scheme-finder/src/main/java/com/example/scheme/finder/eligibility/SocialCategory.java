@@ -0,0 +1,32 @@
+package com.example.scheme.finder.eligibility;
+
+import java.util.Locale;
+
+// Reservation categories as written in User.category and Scheme.eligibleCategories
+public enum SocialCategory {
+    GENERAL, OBC, SC, ST, EWS;
+
+    static final int ALL_MASK = (1 << values().length) - 1;
+
+    public static SocialCategory parse(String value) {
+        if (value == null) return null;
+        String normalized = value.trim().toUpperCase(Locale.ROOT);
+        if (normalized.equals("GEN")) return GENERAL;
+        for (SocialCategory category : values()) {
+            if (category.name().equals(normalized)) return category;
+        }
+        return null;
+    }
+
+    // Blank, "ALL" or a list with no recognisable category places no restriction
+    static int maskOf(String csv) {
+        if (csv == null) return ALL_MASK;
+        int mask = 0;
+        for (String part : csv.split(",")) {
+            if (part.trim().equalsIgnoreCase("ALL")) return ALL_MASK;
+            SocialCategory category = parse(part);
+            if (category != null) mask |= 1 << category.ordinal();
+        }
+        return mask != 0 ? mask : ALL_MASK;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.cache.BoundedCache;
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.UserProfileChangedEvent;
+import com.example.scheme.finder.exception.ResourceNotFoundException;
+import com.example.scheme.finder.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+// Materialized eligible-scheme ids per user, kept as a sorted long[] next to the profile it was
+// computed from. A profile change recomputes the entry at commit; a scheme change bumps the engine
+// version, and stale entries are re-evaluated from their stored profile on the next read. The least
+// recently used users are evicted once the cache is full.
+@Component
+@RequiredArgsConstructor
+public class UserEligibilityCache {
+
+    private final EligibilityEngine eligibilityEngine;
+    private final UserRepository userRepository;
+
+    @Value("${app.eligibility.user-cache.max-entries:100000}")
+    private int maxEntries;
+
+    private BoundedCache<Long, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new BoundedCache<>(maxEntries, 0);
+    }
+
+    // Also detaches any load still running for the user, so it cannot store the old profile
+    @TransactionalEventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        Long userId = event.getUser().getId();
+        CompiledRules snapshot = eligibilityEngine.snapshot();
+        if (snapshot == null) {
+            entries.invalidate(userId);
+            return;
+        }
+        entries.put(userId, Entry.compute(EligibilityProfile.of(event.getUser()), snapshot));
+    }
+
+    // Ascending scheme ids; empty while the engine has not compiled yet
+    public Optional<long[]> eligibleSchemeIds(Long userId) {
+        CompiledRules snapshot = eligibilityEngine.snapshot();
+        if (snapshot == null) return Optional.empty();
+
+        Entry entry = entries.get(userId, id -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+            return Entry.compute(EligibilityProfile.of(user), snapshot);
+        });
+        if (entry.version != snapshot.version) {
+            Entry refreshed = Entry.compute(entry.profile, snapshot);
+            entries.replace(userId, entry, refreshed);
+            entry = refreshed;
+        }
+        return Optional.of(entry.schemeIds);
+    }
+
+    private static final class Entry {
+        private final EligibilityProfile profile;
+        private final long version;
+        private final long[] schemeIds;
+
+        private Entry(EligibilityProfile profile, long version, long[] schemeIds) {
+            this.profile = profile;
+            this.version = version;
+            this.schemeIds = schemeIds;
+        }
+
+        static Entry compute(EligibilityProfile profile, CompiledRules snapshot) {
+            return new Entry(profile, snapshot.version, snapshot.matchingIds(profile));
+        }
+    }
+}
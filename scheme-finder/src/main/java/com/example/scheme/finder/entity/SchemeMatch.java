@@ -0,0 +1,33 @@
+package com.example.scheme.finder.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Users who qualified for a scheme when it was published. Rows are bulk-inserted over JDBC,
+// so the ids are plain columns rather than associations.
+@Entity
+@Table(name = "scheme_matches",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"scheme_id", "user_id"}),
+        indexes = @Index(name = "idx_scheme_matches_user", columnList = "user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchemeMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "scheme_id", nullable = false)
+    private Long schemeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "matched_at", nullable = false)
+    private LocalDateTime matchedAt;
+}
@@ -68,6 +68,11 @@ public class User extends BaseEntity {
     @Column(name = "email_verified")
     private Boolean emailVerified = false;
 
+    // Bumped to revoke every access token issued before
+    @Builder.Default
+    @Column(name = "token_epoch", nullable = false)
+    private Long tokenEpoch = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<SavedScheme> savedSchemes = new HashSet<>();
 
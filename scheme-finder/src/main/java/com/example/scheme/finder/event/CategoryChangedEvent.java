@@ -0,0 +1,12 @@
+package com.example.scheme.finder.event;
+
+import com.example.scheme.finder.entity.Category;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+
+    private final Category category;
+}
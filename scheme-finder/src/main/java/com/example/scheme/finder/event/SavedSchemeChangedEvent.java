@@ -0,0 +1,15 @@
+package com.example.scheme.finder.event;
+
+import com.example.scheme.finder.entity.Scheme;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class SavedSchemeChangedEvent {
+
+    private final Long userId;
+    private final Long schemeId;
+    // The scheme that was saved, or null when it was unsaved
+    private final Scheme savedScheme;
+}
@@ -0,0 +1,17 @@
+package com.example.scheme.finder.event;
+
+import com.example.scheme.finder.entity.Scheme;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class SchemeChangedEvent {
+
+    private final Scheme scheme;
+    private final ChangeType type;
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
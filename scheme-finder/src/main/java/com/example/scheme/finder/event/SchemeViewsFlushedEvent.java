@@ -0,0 +1,14 @@
+package com.example.scheme.finder.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+@Getter
+@RequiredArgsConstructor
+public class SchemeViewsFlushedEvent {
+
+    // Views added per scheme id by one flushed chunk
+    private final Map<Long, Long> deltas;
+}
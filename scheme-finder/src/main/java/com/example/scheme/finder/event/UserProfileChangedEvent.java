@@ -0,0 +1,12 @@
+package com.example.scheme.finder.event;
+
+import com.example.scheme.finder.entity.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserProfileChangedEvent {
+
+    private final User user;
+}
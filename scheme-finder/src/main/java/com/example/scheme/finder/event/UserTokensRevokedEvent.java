@@ -0,0 +1,12 @@
+package com.example.scheme.finder.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserTokensRevokedEvent {
+
+    private final Long userId;
+    private final long tokenEpoch;
+}
@@ -14,4 +14,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     @Query("SELECT COUNT(s) FROM Scheme s WHERE s.category.id = :categoryId AND s.status = 'ACTIVE'")
     Long countActiveSchemesByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT s.category.id, COUNT(s) FROM Scheme s WHERE s.status = 'ACTIVE' GROUP BY s.category.id")
+    List<Object[]> countActiveSchemesGroupByCategory();
 }
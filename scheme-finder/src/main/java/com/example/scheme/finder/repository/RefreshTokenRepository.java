@@ -1,19 +1,9 @@
 package com.example.scheme.finder.repository;
 
 import com.example.scheme.finder.entity.RefreshToken;
-import com.example.scheme.finder.entity.User;
-import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-
-    @Modifying
-    @Transactional
-    void deleteByUser(User user);
 }
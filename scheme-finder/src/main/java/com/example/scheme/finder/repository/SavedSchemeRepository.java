@@ -4,8 +4,11 @@ import com.example.scheme.finder.entity.SavedScheme;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,7 @@ public interface SavedSchemeRepository extends JpaRepository<SavedScheme, Long>
     boolean existsByUserIdAndSchemeId(Long userId, Long schemeId);
     Page<SavedScheme> findByUserId(Long userId, Pageable pageable);
     void deleteByUserIdAndSchemeId(Long userId, Long schemeId);
+
+    @Query("SELECT ss.scheme.id FROM SavedScheme ss WHERE ss.user.id = :userId")
+    List<Long> findSchemeIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,10 @@
+package com.example.scheme.finder.repository;
+
+import com.example.scheme.finder.entity.SchemeMatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchemeMatchRepository extends JpaRepository<SchemeMatch, Long> {
+    long countBySchemeId(Long schemeId);
+}
@@ -3,18 +3,33 @@ package com.example.scheme.finder.repository;
 import com.example.scheme.finder.entity.Scheme;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SchemeRepository extends JpaRepository<Scheme, Long>, JpaSpecificationExecutor<Scheme> {
 
     Page<Scheme> findByStatus(Scheme.SchemeStatus status, Pageable pageable);
 
+    Slice<Scheme> findByStatusAndIdGreaterThanOrderByIdAsc(Scheme.SchemeStatus status, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category"})
+    Page<Scheme> findAll(Specification<Scheme> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category"})
+    List<Scheme> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"faqs"})
+    Optional<Scheme> findWithFaqsById(Long id);
+
     // SchemeRepository.java
     @EntityGraph(attributePaths = {"category"})
     Page<Scheme> findByStatus(String status, Pageable pageable);
@@ -80,6 +95,12 @@ public interface SchemeRepository extends JpaRepository<Scheme, Long>, JpaSpecif
     @Query("SELECT COUNT(s) FROM Scheme s WHERE s.status = 'ACTIVE'")
     Long countActiveSchemes();
 
+    @Query("SELECT COUNT(s) FROM Scheme s WHERE s.schemeLevel = :level AND s.status = 'ACTIVE'")
+    Long countActiveSchemesByLevel(@Param("level") Scheme.SchemeLevel level);
+
     @Query("SELECT s.stateName, COUNT(s) FROM Scheme s WHERE s.schemeLevel = 'STATE' AND s.status = 'ACTIVE' GROUP BY s.stateName")
     List<Object[]> countSchemesByState();
+
+    @Query("SELECT s.id, s.category.id, s.schemeLevel, s.stateName FROM Scheme s WHERE s.status = 'ACTIVE'")
+    List<Object[]> findActiveSchemePlacements();
 }
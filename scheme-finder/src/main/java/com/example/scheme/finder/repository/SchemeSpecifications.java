@@ -0,0 +1,54 @@
+package com.example.scheme.finder.repository;
+
+import com.example.scheme.finder.entity.Scheme;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class SchemeSpecifications {
+
+    private SchemeSpecifications() {
+    }
+
+    public static Specification<Scheme> isActive() {
+        return (root, query, cb) -> cb.equal(root.get("status"), Scheme.SchemeStatus.ACTIVE);
+    }
+
+    public static Specification<Scheme> idIn(long[] ids) {
+        List<Long> boxed = new ArrayList<>(ids.length);
+        for (long id : ids) boxed.add(id);
+        return (root, query, cb) -> root.get("id").in(boxed);
+    }
+
+    public static Specification<Scheme> hasCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Scheme> hasState(String stateName) {
+        return equalsIgnoreCase("stateName", stateName);
+    }
+
+    public static Specification<Scheme> hasLevel(Scheme.SchemeLevel level) {
+        return (root, query, cb) -> cb.equal(root.get("schemeLevel"), level);
+    }
+
+    public static Specification<Scheme> hasBenefitType(String benefitType) {
+        return equalsIgnoreCase("benefitType", benefitType);
+    }
+
+    public static Specification<Scheme> hasMinistry(String ministryName) {
+        return equalsIgnoreCase("ministryName", ministryName);
+    }
+
+    public static Specification<Scheme> launchedOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("launchDate"), date);
+    }
+
+    private static Specification<Scheme> equalsIgnoreCase(String attribute, String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get(attribute)), normalized);
+    }
+}
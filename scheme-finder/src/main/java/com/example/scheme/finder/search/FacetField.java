@@ -0,0 +1,30 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Scheme;
+
+import java.util.function.Function;
+
+public enum FacetField {
+    CATEGORY("categoryId", scheme -> scheme.getCategory() != null ? String.valueOf(scheme.getCategory().getId()) : null),
+    STATE("stateName", Scheme::getStateName),
+    LEVEL("schemeLevel", scheme -> scheme.getSchemeLevel() != null ? scheme.getSchemeLevel().name() : null),
+    BENEFIT_TYPE("benefitType", Scheme::getBenefitType),
+    MINISTRY("ministryName", Scheme::getMinistryName);
+
+    private final String key;
+    private final Function<Scheme, String> extractor;
+
+    FacetField(String key, Function<Scheme, String> extractor) {
+        this.key = key;
+        this.extractor = extractor;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String valueOf(Scheme scheme) {
+        String value = extractor.apply(scheme);
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.scheme.finder.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Trigram candidate lookup plus bounded Levenshtein verification over the title/tag vocabulary.
+// Not thread-safe on its own; SchemeSearchIndex guards it with its read/write lock.
+final class FuzzyTermMatcher {
+
+    private static final int MAX_CANDIDATES_VERIFIED = 500;
+
+    private final Map<String, Integer> references = new HashMap<>();
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    void add(String term) {
+        if (references.merge(term, 1, Integer::sum) > 1) return;
+        for (String gram : gramsOf(term)) {
+            termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+    }
+
+    void remove(String term) {
+        Integer count = references.get(term);
+        if (count == null) return;
+        if (count > 1) {
+            references.put(term, count - 1);
+            return;
+        }
+        references.remove(term);
+        for (String gram : gramsOf(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms == null) continue;
+            terms.remove(term);
+            if (terms.isEmpty()) termsByGram.remove(gram);
+        }
+    }
+
+    void clear() {
+        references.clear();
+        termsByGram.clear();
+    }
+
+    static int maxEditsFor(String term) {
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    // Terms within maxEdits of the query term, closest first; stops early once the deadline passes
+    List<Match> match(String term, int maxEdits, int limit, long deadlineNanos) {
+        List<String> grams = gramsOf(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms == null) continue;
+            for (String candidate : terms) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+
+        // Each edit destroys at most three trigrams of the padded term
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+        List<Match> matches = new ArrayList<>();
+        int verified = 0;
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String candidate = entry.getKey();
+            if (entry.getValue() < minShared || candidate.equals(term)) continue;
+            if (Math.abs(candidate.length() - term.length()) > maxEdits) continue;
+            if (++verified > MAX_CANDIDATES_VERIFIED || System.nanoTime() > deadlineNanos) break;
+
+            int distance = boundedDistance(term, candidate, maxEdits);
+            if (distance <= maxEdits) matches.add(new Match(candidate, distance));
+        }
+
+        matches.sort((a, b) -> a.distance != b.distance
+                ? Integer.compare(a.distance, b.distance)
+                : Integer.compare(references.get(b.term), references.get(a.term)));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    // Levenshtein distance, abandoned as soon as a whole row exceeds maxEdits
+    static int boundedDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static List<String> gramsOf(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            String gram = padded.substring(i, i + 3);
+            if (!grams.contains(gram)) grams.add(gram);
+        }
+        return grams;
+    }
+
+    static final class Match {
+        final String term;
+        final int distance;
+
+        Match(String term, int distance) {
+            this.term = term;
+            this.distance = distance;
+        }
+    }
+}
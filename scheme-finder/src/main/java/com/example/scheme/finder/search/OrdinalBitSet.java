@@ -0,0 +1,107 @@
+package com.example.scheme.finder.search;
+
+import java.util.Arrays;
+
+// Growable bitset over dense scheme ordinals. Unlike java.util.BitSet it exposes
+// intersection counts and in-place word operations that do not allocate.
+public final class OrdinalBitSet {
+
+    private long[] words;
+
+    public OrdinalBitSet() {
+        this(64);
+    }
+
+    public OrdinalBitSet(int capacity) {
+        words = new long[Math.max(1, (capacity + 63) >>> 6)];
+    }
+
+    private OrdinalBitSet(long[] words) {
+        this.words = words;
+    }
+
+    public void set(int index) {
+        int word = index >>> 6;
+        if (word >= words.length) words = Arrays.copyOf(words, Math.max(words.length * 2, word + 1));
+        words[word] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        int word = index >>> 6;
+        if (word < words.length) words[word] &= ~(1L << index);
+    }
+
+    public boolean get(int index) {
+        int word = index >>> 6;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int intersectionCount(OrdinalBitSet other) {
+        int count = 0;
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    public void and(OrdinalBitSet other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            words[i] &= other.words[i];
+        }
+        Arrays.fill(words, length, words.length, 0L);
+    }
+
+    public void or(OrdinalBitSet other) {
+        if (other.words.length > words.length) words = Arrays.copyOf(words, other.words.length);
+        for (int i = 0; i < other.words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public int nextSetBit(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) return -1;
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word == words.length) return -1;
+            bits = words[word];
+        }
+    }
+
+    public int previousSetBit(int from) {
+        if (from < 0) return -1;
+        int word = from >>> 6;
+        if (word >= words.length) {
+            word = words.length - 1;
+            from = (word << 6) + 63;
+        }
+        long bits = words[word] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (bits != 0) return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            if (word-- == 0) return -1;
+            bits = words[word];
+        }
+    }
+
+    public OrdinalBitSet copy() {
+        return new OrdinalBitSet(words.clone());
+    }
+}
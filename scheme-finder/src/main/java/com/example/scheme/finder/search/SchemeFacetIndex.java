@@ -0,0 +1,243 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.SchemeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemeFacetIndex {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final FacetField[] FIELDS = FacetField.values();
+
+    private final SchemeRepository schemeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Map<String, FacetValue>> valuesByField = new ArrayList<>();
+    private OrdinalBitSet active = new OrdinalBitSet();
+    private String[][] keysByOrdinal = new String[1024][];
+    private long[] schemeIds = new long[1024];
+    private int nextOrdinal;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            valuesByField.clear();
+            for (int i = 0; i < FIELDS.length; i++) {
+                valuesByField.add(new HashMap<>());
+            }
+            active = new OrdinalBitSet();
+            keysByOrdinal = new String[1024][];
+            schemeIds = new long[1024];
+            nextOrdinal = 0;
+
+            long lastId = 0L;
+            Slice<Scheme> batch;
+            do {
+                batch = schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        Scheme.SchemeStatus.ACTIVE, lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Scheme scheme : batch) {
+                    add(scheme);
+                    lastId = scheme.getId();
+                }
+            } while (batch.hasNext());
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Scheme facet index built: {} schemes in {} ms",
+                active.cardinality(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        Scheme scheme = event.getScheme();
+        lock.writeLock().lock();
+        try {
+            if (valuesByField.isEmpty()) return;
+            remove(scheme.getId());
+            if (event.getType() != SchemeChangedEvent.ChangeType.DELETED
+                    && scheme.getStatus() == Scheme.SchemeStatus.ACTIVE) {
+                add(scheme);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int cardinality(FacetField field, String value) {
+        lock.readLock().lock();
+        try {
+            FacetValue facetValue = find(field, value);
+            return facetValue != null ? facetValue.bits.cardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Active scheme ids carrying the value, ascending
+    public long[] idsFor(FacetField field, String value) {
+        lock.readLock().lock();
+        try {
+            FacetValue facetValue = find(field, value);
+            return facetValue != null ? toSchemeIds(facetValue.bits) : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] allIds() {
+        lock.readLock().lock();
+        try {
+            return toSchemeIds(active);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Map<String, Long>> countAll() {
+        lock.readLock().lock();
+        try {
+            return counts(active);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Map<String, Long>> countWithin(FacetField field, String value) {
+        lock.readLock().lock();
+        try {
+            FacetValue facetValue = find(field, value);
+            return counts(facetValue != null ? facetValue.bits : new OrdinalBitSet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Map<String, Long>> countWithin(long[] schemeIds) {
+        lock.readLock().lock();
+        try {
+            OrdinalBitSet scope = new OrdinalBitSet(nextOrdinal);
+            for (long schemeId : schemeIds) {
+                Integer ordinal = ordinals.get(schemeId);
+                if (ordinal != null && active.get(ordinal)) scope.set(ordinal);
+            }
+            return counts(scope);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private FacetValue find(FacetField field, String value) {
+        if (value == null || valuesByField.isEmpty()) return null;
+        return valuesByField.get(field.ordinal()).get(value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private long[] toSchemeIds(OrdinalBitSet bits) {
+        long[] ids = new long[bits.cardinality()];
+        int n = 0;
+        for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+            ids[n++] = schemeIds[ordinal];
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    // Every facet value is one bitset intersection against the scope; no per-scheme lookups
+    private Map<String, Map<String, Long>> counts(OrdinalBitSet scope) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (FacetField field : FIELDS) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<>();
+            for (FacetValue value : valuesByField.get(field.ordinal()).values()) {
+                int count = scope.intersectionCount(value.bits);
+                if (count > 0) entries.add(Map.entry(value.label, (long) count));
+            }
+            entries.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : entries) {
+                counts.put(entry.getKey(), entry.getValue());
+            }
+            facets.put(field.getKey(), counts);
+        }
+        return facets;
+    }
+
+    private void add(Scheme scheme) {
+        int ordinal = ordinals.computeIfAbsent(scheme.getId(), id -> nextOrdinal++);
+        if (ordinal >= keysByOrdinal.length) {
+            keysByOrdinal = Arrays.copyOf(keysByOrdinal, Math.max(keysByOrdinal.length * 2, ordinal + 1));
+            schemeIds = Arrays.copyOf(schemeIds, keysByOrdinal.length);
+        }
+        schemeIds[ordinal] = scheme.getId();
+
+        String[] keys = new String[FIELDS.length];
+        for (FacetField field : FIELDS) {
+            String value = field.valueOf(scheme);
+            if (value == null) continue;
+            String key = value.toLowerCase(Locale.ROOT);
+            valuesByField.get(field.ordinal())
+                    .computeIfAbsent(key, k -> new FacetValue(value))
+                    .bits.set(ordinal);
+            keys[field.ordinal()] = key;
+        }
+        keysByOrdinal[ordinal] = keys;
+        active.set(ordinal);
+    }
+
+    private void remove(Long schemeId) {
+        Integer ordinal = ordinals.get(schemeId);
+        if (ordinal == null || !active.get(ordinal)) return;
+
+        String[] keys = keysByOrdinal[ordinal];
+        for (FacetField field : FIELDS) {
+            String key = keys[field.ordinal()];
+            if (key == null) continue;
+            Map<String, FacetValue> values = valuesByField.get(field.ordinal());
+            FacetValue value = values.get(key);
+            if (value == null) continue;
+            value.bits.clear(ordinal);
+            if (value.bits.isEmpty()) values.remove(key);
+        }
+        keysByOrdinal[ordinal] = null;
+        active.clear(ordinal);
+    }
+
+    private static final class FacetValue {
+        private final String label;
+        private final OrdinalBitSet bits = new OrdinalBitSet();
+
+        private FacetValue(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.exception.ServiceUnavailableException;
+import com.example.scheme.finder.repository.SchemeSpecifications;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+// Serves as many filter predicates as possible from the in-memory indexes, most selective first,
+// and leaves only the rest to a JPA Specification. The keyword is always resolved through the
+// search index, so it means the same token match on every path.
+@Component
+@RequiredArgsConstructor
+public class SchemeQueryPlanner {
+
+    // Past this many candidates an IN list costs more than letting the database evaluate every predicate,
+    // and no query ever binds more ids than this
+    public static final int MAX_IN_LIST_SIZE = 1000;
+
+    private final SchemeFacetIndex schemeFacetIndex;
+    private final SchemeSearchIndex schemeSearchIndex;
+
+    public QueryPlan plan(SchemeDto.SchemeFilterRequest filter) {
+        List<Predicate> indexed = new ArrayList<>();
+        List<Predicate> residual = new ArrayList<>();
+        for (Predicate predicate : predicatesOf(filter)) {
+            if (predicate.ids != null) {
+                predicate.estimate = predicate.estimator.getAsInt();
+                indexed.add(predicate);
+            } else {
+                residual.add(predicate);
+            }
+        }
+        indexed.sort(Comparator.comparingInt(predicate -> predicate.estimate));
+
+        List<String> steps = new ArrayList<>();
+        long[] candidates = null;
+        for (Predicate predicate : indexed) {
+            long[] ids = predicate.ids.get();
+            candidates = candidates == null ? ids : intersect(candidates, ids);
+            steps.add(String.format("index %s: %d ids, %d candidates", predicate.description, ids.length, candidates.length));
+            if (candidates.length == 0) break;
+        }
+
+        if (residual.isEmpty() || (candidates != null && candidates.length == 0)) {
+            if (candidates == null) {
+                if (!schemeFacetIndex.isReady()) {
+                    steps.add("specification: status=ACTIVE");
+                    return QueryPlan.specification(SchemeSpecifications.isActive(), steps);
+                }
+                candidates = schemeFacetIndex.allIds();
+                steps.add(String.format("index status=ACTIVE: %d ids", candidates.length));
+            }
+            return new QueryPlan(SchemeDto.FilterPath.INDEX, candidates, null, steps);
+        }
+
+        List<Specification<Scheme>> specifications = new ArrayList<>();
+        specifications.add(SchemeSpecifications.isActive());
+        if (candidates != null && candidates.length <= MAX_IN_LIST_SIZE) {
+            specifications.add(SchemeSpecifications.idIn(candidates));
+            for (Predicate predicate : residual) {
+                specifications.add(predicate.specification);
+                steps.add("specification: " + predicate.description);
+            }
+            return new QueryPlan(SchemeDto.FilterPath.INDEX_WITH_SPECIFICATION, null,
+                    Specification.allOf(specifications), steps);
+        }
+
+        // Keyword candidates have no specification to fall back to, so the residual predicates are
+        // checked against them one id chunk at a time instead of as a single oversized IN list
+        boolean indexOnly = indexed.stream().anyMatch(predicate -> predicate.specification == null);
+        if (indexOnly) {
+            steps.add(String.format("%d candidates checked in chunks of %d ids", candidates.length, MAX_IN_LIST_SIZE));
+            for (Predicate predicate : residual) {
+                specifications.add(predicate.specification);
+                steps.add("specification: " + predicate.description);
+            }
+            return new QueryPlan(SchemeDto.FilterPath.INDEX_WITH_SPECIFICATION, candidates,
+                    Specification.allOf(specifications), steps);
+        }
+
+        if (candidates != null) {
+            steps.add(String.format("%d candidates exceed the id list limit, discarded", candidates.length));
+        }
+        // Reached only when every indexed predicate has a specification
+        for (Predicate predicate : indexed) {
+            specifications.add(predicate.specification);
+            steps.add("specification: " + predicate.description);
+        }
+        for (Predicate predicate : residual) {
+            specifications.add(predicate.specification);
+            steps.add("specification: " + predicate.description);
+        }
+        return QueryPlan.specification(Specification.allOf(specifications), steps);
+    }
+
+    private List<Predicate> predicatesOf(SchemeDto.SchemeFilterRequest filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCategoryId() != null) {
+            predicates.add(facet(FacetField.CATEGORY, String.valueOf(filter.getCategoryId()),
+                    SchemeSpecifications.hasCategory(filter.getCategoryId())));
+        }
+        if (hasText(filter.getState())) {
+            predicates.add(facet(FacetField.STATE, filter.getState(),
+                    SchemeSpecifications.hasState(filter.getState())));
+        }
+        if (filter.getLevel() != null) {
+            predicates.add(facet(FacetField.LEVEL, filter.getLevel().name(),
+                    SchemeSpecifications.hasLevel(filter.getLevel())));
+        }
+        if (hasText(filter.getBenefitType())) {
+            predicates.add(facet(FacetField.BENEFIT_TYPE, filter.getBenefitType(),
+                    SchemeSpecifications.hasBenefitType(filter.getBenefitType())));
+        }
+        if (hasText(filter.getMinistry())) {
+            predicates.add(facet(FacetField.MINISTRY, filter.getMinistry(),
+                    SchemeSpecifications.hasMinistry(filter.getMinistry())));
+        }
+        if (hasText(filter.getKeyword())) {
+            // A LIKE fallback would match substrings the index does not, so there is none
+            if (!schemeSearchIndex.isReady()) {
+                throw new ServiceUnavailableException("Search index is still loading, please retry shortly");
+            }
+            String keyword = filter.getKeyword();
+            boolean fuzzy = Boolean.TRUE.equals(filter.getFuzzy());
+            Predicate predicate = new Predicate("keyword='" + keyword.trim() + "'", null);
+            predicate.estimator = () -> schemeSearchIndex.estimateMatches(keyword);
+            predicate.ids = () -> schemeSearchIndex.findMatchingIds(keyword, fuzzy).orElse(new long[0]);
+            predicates.add(predicate);
+        }
+        if (filter.getLaunchedAfter() != null) {
+            predicates.add(new Predicate("launchedAfter=" + filter.getLaunchedAfter(),
+                    SchemeSpecifications.launchedOnOrAfter(filter.getLaunchedAfter())));
+        }
+        return predicates;
+    }
+
+    private Predicate facet(FacetField field, String value, Specification<Scheme> specification) {
+        Predicate predicate = new Predicate(field.getKey() + "=" + value.trim(), specification);
+        if (schemeFacetIndex.isReady()) {
+            predicate.estimator = () -> schemeFacetIndex.cardinality(field, value);
+            predicate.ids = () -> schemeFacetIndex.idsFor(field, value);
+        }
+        return predicate;
+    }
+
+    // Probes the larger array with a moving lower bound, so the cost follows the smaller side
+    static long[] intersect(long[] a, long[] b) {
+        long[] small = a.length <= b.length ? a : b;
+        long[] large = small == a ? b : a;
+        long[] result = new long[small.length];
+        int n = 0;
+        int from = 0;
+        for (long id : small) {
+            if (from == large.length) break;
+            int position = Arrays.binarySearch(large, from, large.length, id);
+            if (position >= 0) {
+                result[n++] = id;
+                from = position + 1;
+            } else {
+                from = -(position + 1);
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class QueryPlan {
+        private final SchemeDto.FilterPath path;
+        // Ascending; when a specification is also set, only the ids it matches are results
+        private final long[] schemeIds;
+        private final Specification<Scheme> specification;
+        private final List<String> steps;
+
+        private static QueryPlan specification(Specification<Scheme> specification, List<String> steps) {
+            return new QueryPlan(SchemeDto.FilterPath.SPECIFICATION, null, specification, steps);
+        }
+    }
+
+    private static final class Predicate {
+        private final String description;
+        private final Specification<Scheme> specification;
+        private IntSupplier estimator;
+        private Supplier<long[]> ids;
+        private int estimate;
+
+        private Predicate(String description, Specification<Scheme> specification) {
+            this.description = description;
+            this.specification = specification;
+        }
+    }
+}
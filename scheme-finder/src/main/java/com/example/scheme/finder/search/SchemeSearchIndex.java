@@ -0,0 +1,457 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.SchemeRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemeSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float PREFIX_WEIGHT = 0.6f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_FUZZY_EXPANSIONS = 8;
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final long FUZZY_BUDGET_NANOS = 2_000_000L;
+
+    private final SchemeRepository schemeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // Changes committed while a rebuild is loading; replayed onto the new index before it is swapped in
+    private List<SchemeChangedEvent> pendingChanges;
+    private volatile boolean ready;
+
+    // Loads into a fresh index without holding the lock, so searches keep using the old one meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        boolean loaded = false;
+        try {
+            long lastId = 0L;
+            Slice<Scheme> batch;
+            do {
+                batch = schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        Scheme.SchemeStatus.ACTIVE, lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Scheme scheme : batch) {
+                    rebuilt.add(scheme);
+                    lastId = scheme.getId();
+                }
+            } while (batch.hasNext());
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    for (SchemeChangedEvent change : pendingChanges) {
+                        rebuilt.apply(change);
+                    }
+                    index = rebuilt;
+                    ready = true;
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Scheme search index built: {} schemes, {} terms in {} ms",
+                rebuilt.documentCount, rebuilt.postings.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.apply(event);
+            if (pendingChanges != null) pendingChanges.add(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Every query token must match (AND); tokens of 3+ chars also match longer terms by prefix,
+    // and in fuzzy mode title/tag terms within a small edit distance.
+    // Matches are ranked by BM25F over the boosted fields, newest scheme first on ties.
+    // Stop words and single letters are never indexed, so a query made only of them matches nothing.
+    public Optional<SearchResult> search(String query, boolean fuzzy, int offset, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(SchemeTokenizer.tokenize(query));
+        if (tokens.isEmpty()) return Optional.of(new SearchResult(new ArrayList<>(), 0));
+
+        lock.readLock().lock();
+        try {
+            List<List<Expansion>> expandedTokens = new ArrayList<>(tokens.size());
+            BitSet matches = index.collectMatches(tokens, fuzzy, expandedTokens);
+
+            int totalHits = matches.cardinality();
+            if (totalHits == 0 || offset >= totalHits) {
+                return Optional.of(new SearchResult(new ArrayList<>(), totalHits));
+            }
+
+            float[] scores = index.score(expandedTokens, matches);
+            int[] ranked = index.topRanked(matches, scores, (int) Math.min(totalHits, (long) offset + limit));
+
+            List<Long> page = new ArrayList<>(Math.min(limit, ranked.length - offset));
+            for (int i = offset; i < ranked.length; i++) {
+                page.add(index.documents[ranked[i]].schemeId);
+            }
+            return Optional.of(new SearchResult(page, totalHits));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Upper bound on the match count: the smallest per-token union of postings
+    public int estimateMatches(String query) {
+        Set<String> tokens = new LinkedHashSet<>(SchemeTokenizer.tokenize(query));
+        if (tokens.isEmpty()) return 0;
+
+        lock.readLock().lock();
+        try {
+            int estimate = index.documentCount;
+            for (String token : tokens) {
+                int tokenMatches = 0;
+                for (Expansion expansion : index.expand(token)) {
+                    tokenMatches += expansion.posting.size;
+                }
+                estimate = Math.min(estimate, tokenMatches);
+            }
+            return estimate;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All matching scheme ids in ascending order, unranked
+    public Optional<long[]> findMatchingIds(String query, boolean fuzzy) {
+        Set<String> tokens = new LinkedHashSet<>(SchemeTokenizer.tokenize(query));
+        if (tokens.isEmpty()) return Optional.of(new long[0]);
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = index.collectMatches(tokens, fuzzy, new ArrayList<>(tokens.size()));
+            long[] ids = new long[matches.cardinality()];
+            int n = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                ids[n++] = index.documents[ordinal].schemeId;
+            }
+            Arrays.sort(ids);
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Postings, documents and field statistics; replaced wholesale by a rebuild, patched in place on changes
+    private static final class Index {
+        private final TreeMap<String, Posting> postings = new TreeMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final long[] totalFieldLengths = new long[SearchField.values().length];
+        private final FuzzyTermMatcher fuzzyTerms = new FuzzyTermMatcher();
+        private IndexedScheme[] documents = new IndexedScheme[1024];
+        private int nextOrdinal;
+        private int documentCount;
+
+        void apply(SchemeChangedEvent event) {
+            Scheme scheme = event.getScheme();
+            remove(scheme.getId());
+            if (event.getType() != SchemeChangedEvent.ChangeType.DELETED
+                    && scheme.getStatus() == Scheme.SchemeStatus.ACTIVE) {
+                add(scheme);
+            }
+        }
+
+        BitSet collectMatches(Set<String> tokens, boolean fuzzy, List<List<Expansion>> expandedTokens) {
+            long fuzzyDeadline = System.nanoTime() + FUZZY_BUDGET_NANOS;
+            BitSet matches = null;
+            for (String token : tokens) {
+                List<Expansion> expansions = expand(token);
+                if (fuzzy && token.length() >= MIN_FUZZY_LENGTH) {
+                    addFuzzyExpansions(token, expansions, fuzzyDeadline);
+                }
+                expandedTokens.add(expansions);
+
+                BitSet tokenMatches = new BitSet(nextOrdinal);
+                for (Expansion expansion : expansions) {
+                    expansion.posting.collect(tokenMatches);
+                }
+                if (matches == null) {
+                    matches = tokenMatches;
+                } else {
+                    matches.and(tokenMatches);
+                }
+                if (matches.isEmpty()) break;
+            }
+            return matches;
+        }
+
+        List<Expansion> expand(String token) {
+            List<Expansion> expansions = new ArrayList<>();
+            if (token.length() < MIN_PREFIX_LENGTH) {
+                Posting posting = postings.get(token);
+                if (posting != null) expansions.add(new Expansion(posting, 1.0f));
+                return expansions;
+            }
+            for (Posting posting : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                expansions.add(new Expansion(posting, posting.term.equals(token) ? 1.0f : PREFIX_WEIGHT));
+                if (expansions.size() >= MAX_PREFIX_EXPANSIONS) break;
+            }
+            return expansions;
+        }
+
+        void addFuzzyExpansions(String token, List<Expansion> expansions, long deadlineNanos) {
+            int maxEdits = FuzzyTermMatcher.maxEditsFor(token);
+            for (FuzzyTermMatcher.Match match : fuzzyTerms.match(token, maxEdits, MAX_FUZZY_EXPANSIONS, deadlineNanos)) {
+                if (match.term.startsWith(token)) continue; // already a prefix expansion
+                Posting posting = postings.get(match.term);
+                if (posting != null) expansions.add(new Expansion(posting, FUZZY_WEIGHT / match.distance));
+            }
+        }
+
+        float[] score(List<List<Expansion>> expandedTokens, BitSet matches) {
+            SearchField[] fields = SearchField.values();
+            float[] averageLengths = new float[fields.length];
+            for (SearchField field : fields) {
+                averageLengths[field.ordinal()] = documentCount == 0
+                        ? 1f : Math.max(1f, (float) totalFieldLengths[field.ordinal()] / documentCount);
+            }
+
+            float[] scores = new float[nextOrdinal];
+            for (List<Expansion> expansions : expandedTokens) {
+                for (Expansion expansion : expansions) {
+                    Posting posting = expansion.posting;
+                    float idf = (float) Math.log(1 + (documentCount - posting.size + 0.5) / (posting.size + 0.5));
+                    float weight = expansion.weight * idf * (K1 + 1);
+
+                    for (int i = 0; i < posting.size; i++) {
+                        int doc = posting.docs[i];
+                        if (!matches.get(doc)) continue;
+
+                        int[] lengths = documents[doc].fieldLengths;
+                        int packed = posting.freqs[i];
+                        float tf = 0f;
+                        for (SearchField field : fields) {
+                            int freq = field.frequency(packed);
+                            if (freq == 0) continue;
+                            float norm = 1 - B + B * lengths[field.ordinal()] / averageLengths[field.ordinal()];
+                            tf += field.getBoost() * freq / norm;
+                        }
+                        scores[doc] += weight * tf / (tf + K1);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        // Bounded min-heap keeps only the best k ordinals, so deep result sets are never fully sorted
+        int[] topRanked(BitSet matches, float[] scores, int k) {
+            int[] heap = new int[k];
+            int size = 0;
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                if (size < k) {
+                    heap[size] = doc;
+                    siftUp(heap, size++, scores);
+                } else if (ranksAbove(doc, heap[0], scores)) {
+                    heap[0] = doc;
+                    siftDown(heap, size, scores);
+                }
+            }
+
+            int[] ranked = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = heap[0];
+                heap[0] = heap[i];
+                siftDown(heap, i, scores);
+            }
+            return ranked;
+        }
+
+        void siftUp(int[] heap, int index, float[] scores) {
+            int doc = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!ranksAbove(heap[parent], doc, scores)) break;
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = doc;
+        }
+
+        void siftDown(int[] heap, int size, float[] scores) {
+            if (size == 0) return;
+            int index = 0;
+            int doc = heap[0];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) break;
+                if (child + 1 < size && ranksAbove(heap[child], heap[child + 1], scores)) child++;
+                if (!ranksAbove(doc, heap[child], scores)) break;
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = doc;
+        }
+
+        boolean ranksAbove(int a, int b, float[] scores) {
+            if (scores[a] != scores[b]) return scores[a] > scores[b];
+            return documents[a].schemeId > documents[b].schemeId;
+        }
+
+        void add(Scheme scheme) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int[] fieldLengths = new int[SearchField.values().length];
+            for (SearchField field : SearchField.values()) {
+                List<String> tokens = SchemeTokenizer.tokenize(field.valueOf(scheme));
+                for (String token : tokens) {
+                    frequencies.merge(token, field.increment(0), (packed, ignored) -> field.increment(packed));
+                }
+                fieldLengths[field.ordinal()] = tokens.size();
+                totalFieldLengths[field.ordinal()] += tokens.size();
+            }
+
+            int ordinal = ordinals.computeIfAbsent(scheme.getId(), id -> nextOrdinal++);
+            if (ordinal >= documents.length) {
+                documents = Arrays.copyOf(documents, Math.max(documents.length * 2, ordinal + 1));
+            }
+
+            String[] terms = new String[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Posting posting = postings.computeIfAbsent(entry.getKey(), Posting::new);
+                posting.add(ordinal, entry.getValue());
+                terms[i++] = posting.term;
+                if (isFuzzyVocabulary(entry.getValue())) fuzzyTerms.add(posting.term);
+            }
+            documents[ordinal] = new IndexedScheme(scheme.getId(), terms, fieldLengths);
+            documentCount++;
+        }
+
+        void remove(Long schemeId) {
+            Integer ordinal = ordinals.get(schemeId);
+            if (ordinal == null || documents[ordinal] == null) return;
+
+            for (String term : documents[ordinal].terms) {
+                Posting posting = postings.get(term);
+                if (posting == null) continue;
+                int packedFreqs = posting.remove(ordinal);
+                if (packedFreqs >= 0 && isFuzzyVocabulary(packedFreqs)) fuzzyTerms.remove(term);
+                if (posting.size == 0) postings.remove(term);
+            }
+            int[] fieldLengths = documents[ordinal].fieldLengths;
+            for (int i = 0; i < fieldLengths.length; i++) {
+                totalFieldLengths[i] -= fieldLengths[i];
+            }
+            documents[ordinal] = null;
+            documentCount--;
+        }
+    }
+
+    // Only title and tag words are worth correcting; description vocabulary is mostly noise
+    private static boolean isFuzzyVocabulary(int packedFreqs) {
+        return SearchField.TITLE.frequency(packedFreqs) > 0 || SearchField.TAGS.frequency(packedFreqs) > 0;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SearchResult {
+        private final List<Long> schemeIds;
+        private final long totalHits;
+    }
+
+    @RequiredArgsConstructor
+    private static final class IndexedScheme {
+        private final long schemeId;
+        private final String[] terms;
+        private final int[] fieldLengths;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Expansion {
+        private final Posting posting;
+        private final float weight;
+    }
+
+    // Sorted ordinals with packed per-field term frequencies
+    private static final class Posting {
+        private final String term;
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        private Posting(String term) {
+            this.term = term;
+        }
+
+        void add(int doc, int packedFreqs) {
+            int pos = size > 0 && docs[size - 1] >= doc ? Arrays.binarySearch(docs, 0, size, doc) : -(size + 1);
+            if (pos >= 0) {
+                freqs[pos] = packedFreqs;
+                return;
+            }
+            pos = -(pos + 1);
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            docs[pos] = doc;
+            freqs[pos] = packedFreqs;
+            size++;
+        }
+
+        int remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos < 0) return -1;
+            int removed = freqs[pos];
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            size--;
+            return removed;
+        }
+
+        void collect(BitSet target) {
+            for (int i = 0; i < size; i++) {
+                target.set(docs[i]);
+            }
+        }
+    }
+}
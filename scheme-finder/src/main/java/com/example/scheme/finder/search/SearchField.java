@@ -0,0 +1,44 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Scheme;
+
+import java.util.function.Function;
+
+public enum SearchField {
+    TITLE(Scheme::getTitle, 3.0f),
+    TAGS(Scheme::getTags, 2.0f),
+    SHORT_DESCRIPTION(Scheme::getShortDescription, 1.5f),
+    FULL_DESCRIPTION(Scheme::getFullDescription, 1.0f),
+    MINISTRY(Scheme::getMinistryName, 0.5f),
+    BENEFITS(Scheme::getBenefits, 0.8f);
+
+    // Term frequencies for all fields are packed into one int per posting, 5 bits each
+    static final int FREQ_BITS = 5;
+    static final int MAX_FREQ = (1 << FREQ_BITS) - 1;
+
+    private final Function<Scheme, String> extractor;
+    private final float boost;
+
+    SearchField(Function<Scheme, String> extractor, float boost) {
+        this.extractor = extractor;
+        this.boost = boost;
+    }
+
+    public float getBoost() {
+        return boost;
+    }
+
+    public String valueOf(Scheme scheme) {
+        return extractor.apply(scheme);
+    }
+
+    int frequency(int packed) {
+        return (packed >>> (ordinal() * FREQ_BITS)) & MAX_FREQ;
+    }
+
+    int increment(int packed) {
+        int freq = frequency(packed);
+        if (freq == MAX_FREQ) return packed;
+        return packed + (1 << (ordinal() * FREQ_BITS));
+    }
+}
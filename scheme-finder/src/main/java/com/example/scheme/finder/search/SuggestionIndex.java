@@ -0,0 +1,295 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Category;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.event.SchemeViewsFlushedEvent;
+import com.example.scheme.finder.repository.CategoryRepository;
+import com.example.scheme.finder.repository.SchemeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 32;
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final SchemeRepository schemeRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SuggestionTrie.Phrase> tagPhrases = new HashMap<>();
+    private final Map<Long, SuggestionTrie.Phrase> categoryPhrases = new HashMap<>();
+    private final Map<Long, IndexedScheme> schemes = new HashMap<>();
+    private SuggestionTrie trie = new SuggestionTrie(MAX_SUGGESTIONS);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            trie = new SuggestionTrie(MAX_SUGGESTIONS);
+            tagPhrases.clear();
+            categoryPhrases.clear();
+            schemes.clear();
+
+            for (Category category : categoryRepository.findByIsActiveTrueOrderByDisplayOrderAsc()) {
+                putCategory(category, false);
+            }
+
+            long lastId = 0L;
+            Slice<Scheme> batch;
+            do {
+                batch = schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        Scheme.SchemeStatus.ACTIVE, lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Scheme scheme : batch) {
+                    addScheme(scheme, false);
+                    lastId = scheme.getId();
+                }
+            } while (batch.hasNext());
+
+            trie.rebuildTop();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index built: {} schemes, {} tags, {} categories in {} ms",
+                schemes.size(), tagPhrases.size(), categoryPhrases.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onSchemeChanged(SchemeChangedEvent event) {
+        Scheme scheme = event.getScheme();
+        lock.writeLock().lock();
+        try {
+            removeScheme(scheme.getId());
+            if (event.getType() != SchemeChangedEvent.ChangeType.DELETED
+                    && scheme.getStatus() == Scheme.SchemeStatus.ACTIVE) {
+                addScheme(scheme, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Category category = event.getCategory();
+        lock.writeLock().lock();
+        try {
+            SuggestionTrie.Phrase previous = categoryPhrases.remove(category.getId());
+            if (previous != null) {
+                for (String key : keysOf(previous.text)) {
+                    trie.remove(key, previous);
+                }
+            }
+            if (Boolean.TRUE.equals(category.getIsActive())) {
+                putCategory(category, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Keeps ranking on live popularity: the write-behind view counter reports each flushed chunk here
+    @EventListener
+    public void onViewsFlushed(SchemeViewsFlushedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Set<SuggestionTrie.Phrase> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<Long, Long> delta : event.getDeltas().entrySet()) {
+                IndexedScheme indexed = schemes.get(delta.getKey());
+                if (indexed == null) continue;
+                long views = delta.getValue();
+                indexed.weight += views;
+                indexed.title.weight += views;
+                changed.add(indexed.title);
+                for (SuggestionTrie.Phrase tag : indexed.tags) {
+                    tag.weight += views;
+                    changed.add(tag);
+                }
+                SuggestionTrie.Phrase category = indexed.categoryId != null ? categoryPhrases.get(indexed.categoryId) : null;
+                if (category != null) {
+                    category.weight += views;
+                    changed.add(category);
+                }
+            }
+            for (SuggestionTrie.Phrase phrase : changed) {
+                refresh(phrase);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SchemeDto.Suggestion> suggest(String query, int limit) {
+        String prefix = SchemeTokenizer.normalize(query);
+        if (prefix.isEmpty()) return new ArrayList<>();
+        if (prefix.length() > MAX_KEY_LENGTH) prefix = prefix.substring(0, MAX_KEY_LENGTH);
+
+        lock.readLock().lock();
+        try {
+            List<SchemeDto.Suggestion> suggestions = new ArrayList<>();
+            for (SuggestionTrie.Phrase phrase : trie.complete(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))) {
+                suggestions.add(SchemeDto.Suggestion.builder()
+                        .text(phrase.text)
+                        .type(phrase.type)
+                        .schemeId(phrase.schemeId)
+                        .categoryId(phrase.categoryId)
+                        .build());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putCategory(Category category, boolean updateTop) {
+        long weight = 0L;
+        for (IndexedScheme indexed : schemes.values()) {
+            if (category.getId().equals(indexed.categoryId)) weight += indexed.weight;
+        }
+        SuggestionTrie.Phrase phrase = new SuggestionTrie.Phrase(
+                category.getName(), SchemeDto.SuggestionType.CATEGORY, null, category.getId(), weight);
+        categoryPhrases.put(category.getId(), phrase);
+        for (String key : keysOf(phrase.text)) {
+            trie.insert(key, phrase, updateTop);
+        }
+    }
+
+    private void addScheme(Scheme scheme, boolean updateTop) {
+        long weight = scheme.getViewCount() != null ? scheme.getViewCount() : 0L;
+        Long categoryId = scheme.getCategory() != null ? scheme.getCategory().getId() : null;
+
+        SuggestionTrie.Phrase title = new SuggestionTrie.Phrase(
+                scheme.getTitle(), SchemeDto.SuggestionType.SCHEME, scheme.getId(), categoryId, weight);
+        for (String key : keysOf(title.text)) {
+            trie.insert(key, title, updateTop);
+        }
+
+        List<SuggestionTrie.Phrase> tags = new ArrayList<>();
+        for (Map.Entry<String, String> tag : tagsOf(scheme.getTags()).entrySet()) {
+            SuggestionTrie.Phrase phrase = tagPhrases.get(tag.getKey());
+            boolean created = phrase == null;
+            if (created) {
+                phrase = new SuggestionTrie.Phrase(tag.getValue(), SchemeDto.SuggestionType.TAG, null, null, 0L);
+                tagPhrases.put(tag.getKey(), phrase);
+            }
+            phrase.references++;
+            phrase.weight += weight;
+            for (String key : keysOf(phrase.text)) {
+                if (created) {
+                    trie.insert(key, phrase, updateTop);
+                } else if (updateTop) {
+                    trie.refresh(key);
+                }
+            }
+            tags.add(phrase);
+        }
+
+        SuggestionTrie.Phrase category = categoryId != null ? categoryPhrases.get(categoryId) : null;
+        if (category != null) {
+            category.weight += weight;
+            if (updateTop) refresh(category);
+        }
+
+        schemes.put(scheme.getId(), new IndexedScheme(title, tags, categoryId, weight));
+    }
+
+    private void removeScheme(Long schemeId) {
+        IndexedScheme indexed = schemes.remove(schemeId);
+        if (indexed == null) return;
+
+        for (String key : keysOf(indexed.title.text)) {
+            trie.remove(key, indexed.title);
+        }
+
+        for (SuggestionTrie.Phrase tag : indexed.tags) {
+            tag.weight -= indexed.weight;
+            if (--tag.references == 0) {
+                tagPhrases.remove(SchemeTokenizer.normalize(tag.text));
+                for (String key : keysOf(tag.text)) {
+                    trie.remove(key, tag);
+                }
+            } else {
+                refresh(tag);
+            }
+        }
+
+        SuggestionTrie.Phrase category = indexed.categoryId != null ? categoryPhrases.get(indexed.categoryId) : null;
+        if (category != null) {
+            category.weight -= indexed.weight;
+            refresh(category);
+        }
+    }
+
+    private void refresh(SuggestionTrie.Phrase phrase) {
+        for (String key : keysOf(phrase.text)) {
+            trie.refresh(key);
+        }
+    }
+
+    // A phrase is reachable from the start of each of its words, so "kisan" completes "PM Kisan Samman Nidhi"
+    private static Set<String> keysOf(String text) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = SchemeTokenizer.normalize(text);
+        if (normalized.isEmpty()) return keys;
+
+        int start = 0;
+        while (start < normalized.length()) {
+            String key = normalized.substring(start);
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            int space = normalized.indexOf(' ', start);
+            if (space < 0) break;
+            start = space + 1;
+        }
+        return keys;
+    }
+
+    private static Map<String, String> tagsOf(String tags) {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        if (tags == null) return distinct;
+        for (String tag : tags.split(",")) {
+            String normalized = SchemeTokenizer.normalize(tag);
+            if (!normalized.isEmpty()) distinct.putIfAbsent(normalized, tag.trim());
+        }
+        return distinct;
+    }
+
+    private static final class IndexedScheme {
+        private final SuggestionTrie.Phrase title;
+        private final List<SuggestionTrie.Phrase> tags;
+        private final Long categoryId;
+        // Grows with flushed views; guarded by the write lock
+        private long weight;
+
+        private IndexedScheme(SuggestionTrie.Phrase title, List<SuggestionTrie.Phrase> tags, Long categoryId, long weight) {
+            this.title = title;
+            this.tags = tags;
+            this.categoryId = categoryId;
+            this.weight = weight;
+        }
+    }
+}
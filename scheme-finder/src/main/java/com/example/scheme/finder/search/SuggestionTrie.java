@@ -0,0 +1,243 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.dto.SchemeDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Radix trie where every node caches its best completions, so a lookup is one walk down the prefix
+final class SuggestionTrie {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Phrase[] NO_PHRASES = new Phrase[0];
+
+    private static final Comparator<Phrase> RANKING = Comparator
+            .comparingLong((Phrase phrase) -> phrase.weight).reversed()
+            .thenComparing(phrase -> phrase.text);
+
+    private final int topSize;
+    private final Node root = new Node("");
+
+    SuggestionTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    void insert(String key, Phrase phrase, boolean updateTop) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.insertChild(-(index + 1), leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.insertChild(0, child);
+                split.top = child.top;
+                node.children[index] = split;
+                child = split;
+            }
+            i += common;
+            node = child;
+            path.add(node);
+        }
+
+        node.addTerminal(phrase);
+        if (updateTop) refreshPath(path);
+    }
+
+    void remove(String key, Phrase phrase) {
+        List<Node> path = findPath(key);
+        if (path == null) return;
+
+        Node node = path.get(path.size() - 1);
+        node.removeTerminal(phrase);
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            if (current.terminals.length > 0 || current.childCount > 0) break;
+            path.get(i - 1).removeChild(current);
+            path.remove(i);
+        }
+        refreshPath(path);
+    }
+
+    void refresh(String key) {
+        List<Node> path = findPath(key);
+        if (path != null) refreshPath(path);
+    }
+
+    void rebuildTop() {
+        rebuildTop(root);
+    }
+
+    List<Phrase> complete(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.indexOf(prefix.charAt(i));
+            if (index < 0) return List.of();
+
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) return List.of();
+            i += common;
+            node = child;
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.indexOf(key.charAt(i));
+            if (index < 0) return null;
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, i)) return null;
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void refreshPath(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).recomputeTop(topSize);
+        }
+    }
+
+    private void rebuildTop(Node node) {
+        for (int i = 0; i < node.childCount; i++) {
+            rebuildTop(node.children[i]);
+        }
+        node.recomputeTop(topSize);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = 0;
+        while (length < label.length() && offset + length < key.length()
+                && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    static final class Phrase {
+        final String text;
+        final SchemeDto.SuggestionType type;
+        final Long schemeId;
+        final Long categoryId;
+        long weight;
+        int references;
+
+        Phrase(String text, SchemeDto.SuggestionType type, Long schemeId, Long categoryId, long weight) {
+            this.text = text;
+            this.type = type;
+            this.schemeId = schemeId;
+            this.categoryId = categoryId;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        private String label;
+        private char[] firsts = NO_CHARS;
+        private Node[] children = NO_NODES;
+        private int childCount;
+        private Phrase[] terminals = NO_PHRASES;
+        private Phrase[] top = NO_PHRASES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            return Arrays.binarySearch(firsts, 0, childCount, c);
+        }
+
+        void insertChild(int position, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                firsts = Arrays.copyOf(firsts, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(firsts, position, firsts, position + 1, childCount - position);
+            System.arraycopy(children, position, children, position + 1, childCount - position);
+            firsts[position] = child.label.charAt(0);
+            children[position] = child;
+            childCount++;
+        }
+
+        void removeChild(Node child) {
+            int position = indexOf(child.label.charAt(0));
+            if (position < 0 || children[position] != child) return;
+            System.arraycopy(firsts, position + 1, firsts, position, childCount - position - 1);
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            children[--childCount] = null;
+        }
+
+        void addTerminal(Phrase phrase) {
+            for (Phrase terminal : terminals) {
+                if (terminal == phrase) return;
+            }
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = phrase;
+        }
+
+        void removeTerminal(Phrase phrase) {
+            for (int i = 0; i < terminals.length; i++) {
+                if (terminals[i] != phrase) continue;
+                Phrase[] remaining = new Phrase[terminals.length - 1];
+                System.arraycopy(terminals, 0, remaining, 0, i);
+                System.arraycopy(terminals, i + 1, remaining, i, terminals.length - i - 1);
+                terminals = remaining;
+                return;
+            }
+        }
+
+        void recomputeTop(int topSize) {
+            List<Phrase> candidates = new ArrayList<>(terminals.length + childCount * topSize);
+            candidates.addAll(Arrays.asList(terminals));
+            for (int i = 0; i < childCount; i++) {
+                candidates.addAll(Arrays.asList(children[i].top));
+            }
+            candidates.sort(RANKING);
+
+            List<Phrase> best = new ArrayList<>(topSize);
+            for (Phrase candidate : candidates) {
+                if (best.size() == topSize) break;
+                boolean duplicate = false;
+                for (Phrase phrase : best) {
+                    if (phrase == candidate) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) best.add(candidate);
+            }
+            top = best.toArray(NO_PHRASES);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -24,6 +23,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,10 +32,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
             if (jwt != null) {
-                String username = jwtUtil.extractUsername(jwt);
+                VerifiedToken token = jwtUtil.verify(jwt);
+                String username = token.getSubject();
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtUtil.isTokenValid(jwt, userDetails)) {
+                    // Tokens carrying user claims need no lookup; older ones still go to the database
+                    UserPrincipal userDetails = token.hasUserClaims()
+                            ? UserPrincipal.of(token)
+                            : (UserPrincipal) userDetailsService.loadUserByUsername(username);
+                    if (jwtUtil.isTokenValid(token, userDetails) && userDetails.isEnabled()
+                            && !tokenEpochRegistry.isRevoked(userDetails.getId(), token.getTokenEpoch())) {
                         UsernamePasswordAuthenticationToken authToken =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails, null, userDetails.getAuthorities());
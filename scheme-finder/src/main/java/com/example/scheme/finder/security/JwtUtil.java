@@ -1,17 +1,28 @@
 package com.example.scheme.finder.security;
 
+import com.example.scheme.finder.entity.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
@@ -23,59 +34,107 @@ public class JwtUtil {
     @Value("${app.jwt.expiration}")
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int maxCachedTokens;
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    private Key signingKey;
+    private JwtParser parser;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Tokens whose signature was already checked, keyed by SHA-256 of the token so the raw bearer
+    // string is never held; an entry is only trusted until the token's own expiry
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(JwtUtil::newSha256);
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer verificationTimer;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.cacheHits = meterRegistry.counter("jwt.verified.cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("jwt.verified.cache", "result", "miss");
+        this.verificationTimer = meterRegistry.timer("jwt.verification.duration");
+        meterRegistry.gaugeMapSize("jwt.verified.cache.size", Tags.empty(), verifiedTokens);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(
-                java.util.Base64.getEncoder().encodeToString(jwtSecret.getBytes())
-        );
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Verifies signature and expiry once; throws JwtException for anything that is not a valid token
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        Instant now = Instant.now();
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                cacheHits.increment();
+                return cached;
+            }
+            verifiedTokens.remove(key, cached);
+        }
+
+        cacheMisses.increment();
+        Timer.Sample sample = Timer.start();
+        VerifiedToken verified;
+        try {
+            verified = VerifiedToken.of(parser.parseClaimsJws(token).getBody());
+        } finally {
+            sample.stop(verificationTimer);
+        }
+        remember(key, verified, now);
+        return verified;
     }
 
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    // Carries what the filter needs to rebuild the principal without loading the user
+    public String generateToken(UserPrincipal userPrincipal) {
+        User user = userPrincipal.getUser();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(VerifiedToken.USER_ID, user.getId());
+        claims.put(VerifiedToken.ROLE, user.getRole().name());
+        claims.put(VerifiedToken.ACTIVE, Boolean.TRUE.equals(user.getIsActive()));
+        claims.put(VerifiedToken.TOKEN_EPOCH, user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L);
+        return generateToken(claims, userPrincipal);
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("JWT validation error: {}", e.getMessage());
-            return false;
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired(Instant.now());
+    }
+
+    // Expired entries are swept only when the cache is full; if that frees nothing the token is not cached
+    private void remember(String key, VerifiedToken token, Instant now) {
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            verifiedTokens.values().removeIf(entry -> entry.isExpired(now));
+            if (verifiedTokens.size() >= maxCachedTokens) return;
         }
+        verifiedTokens.put(key, token);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private String hash(String token) {
+        return HexFormat.of().formatHex(sha256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 }
@@ -0,0 +1,75 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Charges one token per request on the rate-limited route groups. Runs after JWT authentication
+// so signed-in callers are limited per account.
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || classify(request.getMethod(), request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.RouteGroup group = classify(request.getMethod(), request.getRequestURI());
+        long waitNanos = rateLimiter.tryAcquire(group, request, 1);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(waitNanos)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, please retry later"));
+    }
+
+    // Mirrors the controllers' mappings; the admin group covers the endpoints guarded by an admin role
+    static RateLimiter.RouteGroup classify(String method, String path) {
+        if (path.startsWith("/api/auth/")) return RateLimiter.RouteGroup.AUTH;
+        if (isAdminRoute(method, path)) return RateLimiter.RouteGroup.ADMIN;
+        if (path.equals("/api/schemes/eligible/batch")) return RateLimiter.RouteGroup.BATCH;
+        if (path.startsWith("/api/schemes/eligible") || path.equals("/api/users/me/eligible-schemes")) {
+            return RateLimiter.RouteGroup.ELIGIBLE;
+        }
+        if (path.equals("/api/schemes/search") || path.equals("/api/schemes/suggest")
+                || path.equals("/api/schemes/filter")) return RateLimiter.RouteGroup.SEARCH;
+        return null;
+    }
+
+    private static boolean isAdminRoute(String method, String path) {
+        if (path.equals("/api/schemes/analytics") || path.endsWith("/matches/job")) return true;
+        if (path.startsWith("/api/schemes")) {
+            return !"GET".equals(method) && !path.startsWith("/api/schemes/eligible");
+        }
+        if (path.startsWith("/api/categories")) return !"GET".equals(method);
+        if (path.equals("/api/users")) return "GET".equals(method);
+        if (path.startsWith("/api/users/")) return path.endsWith("/deactivate");
+        return path.startsWith("/api/applications/scheme/") || path.endsWith("/status");
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per route group and client: the user id once JWT authentication has run, otherwise
+// the client address. Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA),
+// so admitting a request is one CAS with no lock and no allocation. Buckets that have refilled
+// completely carry no state worth keeping and are swept on a schedule, never on a request thread.
+// While the table is full, clients without a bucket share one overflow bucket per group whose limit
+// is overflow-factor times a single client's, so a flood of new addresses is still limited.
+@Component
+public class RateLimiter {
+
+    public enum RouteGroup {
+        AUTH, SEARCH, ELIGIBLE, ADMIN,
+        // Batch screening is charged once per request and again against a budget of profiles, apart
+        // from the single eligibility checks so a large batch cannot lock a client out of those
+        BATCH, BATCH_PROFILES
+    }
+
+    private final Counter limited;
+    private final Counter overflowed;
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Limit> overflowLimits = new EnumMap<>(RouteGroup.class);
+    private final ConcurrentHashMap<Object, Bucket>[] buckets;
+    private final Bucket[] overflowBuckets;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${app.rate-limit.overflow-factor:100}")
+    private int overflowFactor;
+
+    @Value("${app.rate-limit.auth.capacity:10}")
+    private int authCapacity;
+
+    @Value("${app.rate-limit.auth.refill-per-second:0.2}")
+    private double authRefillPerSecond;
+
+    @Value("${app.rate-limit.search.capacity:60}")
+    private int searchCapacity;
+
+    @Value("${app.rate-limit.search.refill-per-second:10}")
+    private double searchRefillPerSecond;
+
+    @Value("${app.rate-limit.eligible.capacity:30}")
+    private int eligibleCapacity;
+
+    @Value("${app.rate-limit.eligible.refill-per-second:5}")
+    private double eligibleRefillPerSecond;
+
+    @Value("${app.rate-limit.batch.capacity:5}")
+    private int batchCapacity;
+
+    @Value("${app.rate-limit.batch.refill-per-second:0.1}")
+    private double batchRefillPerSecond;
+
+    @Value("${app.rate-limit.batch.profiles.capacity:10000}")
+    private int batchProfilesCapacity;
+
+    @Value("${app.rate-limit.batch.profiles.refill-per-second:50}")
+    private double batchProfilesRefillPerSecond;
+
+    @Value("${app.rate-limit.admin.capacity:120}")
+    private int adminCapacity;
+
+    @Value("${app.rate-limit.admin.refill-per-second:20}")
+    private double adminRefillPerSecond;
+
+    @SuppressWarnings("unchecked")
+    public RateLimiter(MeterRegistry meterRegistry) {
+        this.limited = meterRegistry.counter("rate.limit.rejected");
+        this.overflowed = meterRegistry.counter("rate.limit.overflow");
+        this.buckets = new ConcurrentHashMap[RouteGroup.values().length];
+        this.overflowBuckets = new Bucket[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+            overflowBuckets[i] = new Bucket(Long.MIN_VALUE);
+        }
+        meterRegistry.gauge("rate.limit.buckets", this, RateLimiter::bucketCount);
+    }
+
+    @PostConstruct
+    void init() {
+        limits.put(RouteGroup.AUTH, new Limit(authCapacity, authRefillPerSecond));
+        limits.put(RouteGroup.SEARCH, new Limit(searchCapacity, searchRefillPerSecond));
+        limits.put(RouteGroup.ELIGIBLE, new Limit(eligibleCapacity, eligibleRefillPerSecond));
+        limits.put(RouteGroup.ADMIN, new Limit(adminCapacity, adminRefillPerSecond));
+        limits.put(RouteGroup.BATCH, new Limit(batchCapacity, batchRefillPerSecond));
+        limits.put(RouteGroup.BATCH_PROFILES, new Limit(batchProfilesCapacity, batchProfilesRefillPerSecond));
+        limits.forEach((group, limit) -> overflowLimits.put(group, limit.scaledBy(overflowFactor)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 0 when admitted, otherwise nanoseconds until the client may retry
+    public long tryAcquire(RouteGroup group, HttpServletRequest request, int permits) {
+        return tryAcquire(group, clientOf(request), permits, System.nanoTime());
+    }
+
+    // For work whose cost is only known once the body is read, such as a batch of profiles
+    public void acquire(RouteGroup group, HttpServletRequest request, int permits) {
+        if (!enabled || permits <= 0) return;
+        long waitNanos = tryAcquire(group, request, permits);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Too many requests, please retry later", retryAfterSeconds(waitNanos));
+        }
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    long tryAcquire(RouteGroup group, Object client, int permits, long now) {
+        ConcurrentHashMap<Object, Bucket> table = buckets[group.ordinal()];
+        Bucket bucket = table.get(client);
+        Limit limit = limits.get(group);
+        if (bucket == null) {
+            // Checked before inserting, so concurrent new clients may overshoot the bound by a few
+            if (bucketCount() >= maxBuckets) {
+                overflowed.increment();
+                bucket = overflowBuckets[group.ordinal()];
+                limit = overflowLimits.get(group);
+            } else {
+                bucket = table.computeIfAbsent(client, key -> new Bucket(now));
+            }
+        }
+        long waitNanos = bucket.tryAcquire(limit, permits, now);
+        if (waitNanos > 0) limited.increment();
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdle() {
+        sweepIdle(System.nanoTime());
+    }
+
+    void sweepIdle(long now) {
+        for (ConcurrentHashMap<Object, Bucket> table : buckets) {
+            table.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    int bucketCount() {
+        int count = 0;
+        for (ConcurrentHashMap<Object, Bucket> table : buckets) {
+            count += table.size();
+        }
+        return count;
+    }
+
+    // Authenticated callers are limited per account wherever they connect from. Behind a proxy the
+    // remote address is the forwarded client address (server.forward-headers-strategy).
+    private static Object clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getId() != null) {
+            return principal.getId();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static final class Limit {
+        // Nanoseconds one token takes to refill, and how far ahead of now a bucket may run (the burst)
+        private final long emissionInterval;
+        private final long burstTolerance;
+
+        private Limit(int capacity, double refillPerSecond) {
+            this.emissionInterval = (long) (1_000_000_000L / refillPerSecond);
+            this.burstTolerance = emissionInterval * (capacity - 1L);
+        }
+
+        // A limit shared by many clients: factor times the burst and the rate
+        private Limit scaledBy(int factor) {
+            int capacity = (int) (burstTolerance / emissionInterval + 1);
+            return new Limit(capacity * factor, 1_000_000_000.0 / emissionInterval * factor);
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        // Admitted while at least one token is left; a multi-permit charge may then run the bucket
+        // into debt, which the client works off before its next request is admitted
+        long tryAcquire(Limit limit, int permits, long now) {
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long base = Math.max(arrival, now);
+                long wait = base - now - limit.burstTolerance;
+                if (wait > 0) return wait;
+                if (theoreticalArrival.compareAndSet(arrival, base + permits * limit.emissionInterval)) return 0L;
+            }
+        }
+
+        boolean isIdle(long now) {
+            return theoreticalArrival.get() <= now;
+        }
+    }
+}
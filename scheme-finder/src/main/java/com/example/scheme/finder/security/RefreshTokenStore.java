@@ -0,0 +1,147 @@
+package com.example.scheme.finder.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// One refresh token per user, stored only as its SHA-256. The token handed out is "<userId>.<random>"
+// so a refresh is a single compare-and-set UPDATE on the user's row: it succeeds only for the
+// current, unexpired token and rotates it in the same statement.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String UPSERT =
+            "INSERT INTO refresh_tokens (user_id, token, expiry_date) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE token = VALUES(token), expiry_date = VALUES(expiry_date)";
+    private static final String ROTATE =
+            "UPDATE refresh_tokens SET token = ?, expiry_date = ? WHERE user_id = ? AND token = ? AND expiry_date > ?";
+    private static final String REVOKE = "DELETE FROM refresh_tokens WHERE user_id = ?";
+    private static final String SWEEP = "DELETE FROM refresh_tokens WHERE expiry_date <= ? LIMIT ?";
+    private static final String HAS_USER_INDEX =
+            "SELECT COUNT(*) FROM (SELECT index_name FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens' AND non_unique = 0 " +
+            "GROUP BY index_name HAVING COUNT(*) = 1 AND MAX(column_name) = 'user_id') user_indexes";
+    // Keeps each user's newest row; older ones were never hashed and can no longer be presented
+    private static final String DEDUPE =
+            "DELETE older FROM refresh_tokens older JOIN refresh_tokens newer " +
+            "ON newer.user_id = older.user_id AND newer.id > older.id";
+    private static final String CREATE_USER_INDEX =
+            "CREATE UNIQUE INDEX uk_refresh_tokens_user_id ON refresh_tokens (user_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${app.jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Value("${app.jwt.refresh-sweep.batch-size:1000}")
+    private int sweepBatchSize;
+
+    // UPSERT relies on a unique index on user_id. ddl-auto=update never adds one to an existing table
+    // (and cannot while a user has several rows), so it is created here once Hibernate has run.
+    @PostConstruct
+    void ensureUserIndex() {
+        if (hasUserIndex()) return;
+        int removed = jdbcTemplate.update(DEDUPE);
+        try {
+            jdbcTemplate.execute(CREATE_USER_INDEX);
+            log.info("Created unique index on refresh_tokens.user_id after removing {} duplicate rows", removed);
+        } catch (DataAccessException ex) {
+            // Another instance starting at the same time may have created it first
+            if (!hasUserIndex()) throw ex;
+        }
+    }
+
+    public String issue(Long userId) {
+        String token = newToken(userId);
+        jdbcTemplate.update(UPSERT, userId, hash(token), expiry());
+        return token;
+    }
+
+    public Optional<Rotation> rotate(String presented) {
+        Long userId = userIdOf(presented);
+        if (userId == null) return Optional.empty();
+        String token = newToken(userId);
+        int rotated = jdbcTemplate.update(ROTATE, hash(token), expiry(), userId, hash(presented), Timestamp.from(Instant.now()));
+        return rotated == 1 ? Optional.of(new Rotation(userId, token)) : Optional.empty();
+    }
+
+    public void revoke(Long userId) {
+        jdbcTemplate.update(REVOKE, userId);
+    }
+
+    // Bounded batches keep each DELETE's lock footprint small even after a long outage
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-sweep.interval-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-sweep.interval-ms:3600000}")
+    public void sweepExpired() {
+        Timestamp now = Timestamp.from(Instant.now());
+        long removed = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(SWEEP, now, sweepBatchSize);
+            removed += batch;
+        } while (batch == sweepBatchSize);
+        if (removed > 0) log.info("Swept {} expired refresh tokens", removed);
+    }
+
+    private boolean hasUserIndex() {
+        Integer indexes = jdbcTemplate.queryForObject(HAS_USER_INDEX, Integer.class);
+        return indexes != null && indexes > 0;
+    }
+
+    private String newToken(Long userId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return userId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private Timestamp expiry() {
+        return Timestamp.from(Instant.now().plusMillis(refreshExpiration));
+    }
+
+    private static Long userIdOf(String token) {
+        int dot = token != null ? token.indexOf('.') : -1;
+        if (dot <= 0) return null;
+        try {
+            return Long.parseLong(token, 0, dot, 10);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Rotation {
+        private final Long userId;
+        private final String token;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.event.UserTokensRevokedEvent;
+import com.example.scheme.finder.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Current token epoch of every user whose tokens were ever revoked; everyone else is at 0. Access
+// tokens carry the epoch they were issued under and are rejected once the user's epoch moves past it.
+// Seeded from users.token_epoch so revocations survive a restart, and re-read periodically so epochs
+// raised by another instance or directly in the database take effect here too.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenEpochRegistry {
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, Long> epochs = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.token-epoch.refresh-interval-ms:60000}",
+            initialDelayString = "${app.security.token-epoch.refresh-interval-ms:60000}")
+    public void load() {
+        for (Object[] row : userRepository.findRaisedTokenEpochs()) {
+            epochs.merge((Long) row[0], (Long) row[1], Math::max);
+        }
+        log.debug("Token epochs loaded for {} users", epochs.size());
+    }
+
+    @TransactionalEventListener
+    public void onTokensRevoked(UserTokensRevokedEvent event) {
+        epochs.merge(event.getUserId(), event.getTokenEpoch(), Math::max);
+    }
+
+    public boolean isRevoked(Long userId, long tokenEpoch) {
+        return tokenEpoch < epochs.getOrDefault(userId, 0L);
+    }
+}
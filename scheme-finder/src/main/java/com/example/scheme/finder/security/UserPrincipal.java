@@ -15,6 +15,17 @@ public class UserPrincipal implements UserDetails {
 
     private final User user;
 
+    // Detached, claims-only user: id, email, role and active flag are set, nothing else is loaded
+    public static UserPrincipal of(VerifiedToken token) {
+        User user = new User();
+        user.setId(token.getUserId());
+        user.setEmail(token.getSubject());
+        user.setRole(token.getRole());
+        user.setIsActive(token.isActive());
+        user.setTokenEpoch(token.getTokenEpoch());
+        return new UserPrincipal(user);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
@@ -0,0 +1,60 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.entity.User;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Claims of an access token whose signature has already been checked; immutable so one instance
+// can be shared by every request presenting the same token. Tokens issued before the user claims
+// were added have a null userId and must be resolved from the database.
+@Getter
+public final class VerifiedToken {
+
+    static final String USER_ID = "uid";
+    static final String ROLE = "role";
+    static final String ACTIVE = "active";
+    static final String TOKEN_EPOCH = "epoch";
+
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Long userId;
+    private final User.Role role;
+    private final boolean active;
+    private final long tokenEpoch;
+
+    private VerifiedToken(String subject, Instant issuedAt, Instant expiresAt,
+                          Long userId, User.Role role, boolean active, long tokenEpoch) {
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.userId = userId;
+        this.role = role;
+        this.active = active;
+        this.tokenEpoch = tokenEpoch;
+    }
+
+    static VerifiedToken of(Claims claims) {
+        Number userId = claims.get(USER_ID, Number.class);
+        String role = claims.get(ROLE, String.class);
+        Number epoch = claims.get(TOKEN_EPOCH, Number.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                userId != null ? userId.longValue() : null,
+                role != null ? User.Role.valueOf(role) : null,
+                Boolean.TRUE.equals(claims.get(ACTIVE, Boolean.class)),
+                epoch != null ? epoch.longValue() : 0L);
+    }
+
+    public boolean hasUserClaims() {
+        return userId != null && role != null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.scheme.finder.service;
 
+import com.example.scheme.finder.cache.CategoryDictionary;
 import com.example.scheme.finder.dto.ApplicationDto;
 import com.example.scheme.finder.dto.CategoryDto;
 import com.example.scheme.finder.dto.PagedResponse;
@@ -29,6 +30,7 @@ public class ApplicationServiceImpl implements ApplicationService {
     private final SchemeApplicationRepository applicationRepository;
     private final SchemeRepository schemeRepository;
     private final UserRepository userRepository;
+    private final CategoryDictionary categoryDictionary;
 
     @Override
     @Transactional
@@ -100,10 +102,11 @@ public class ApplicationServiceImpl implements ApplicationService {
     private ApplicationDto.ApplicationResponse mapToResponse(SchemeApplication application) {
         Scheme scheme = application.getScheme();
         CategoryDto.CategoryResponse catDto = null;
-        if (scheme.getCategory() != null) {
+        CategoryDictionary.CategorySnapshot category = categoryDictionary.resolve(scheme.getCategory());
+        if (category != null) {
             catDto = CategoryDto.CategoryResponse.builder()
-                    .id(scheme.getCategory().getId())
-                    .name(scheme.getCategory().getName())
+                    .id(category.getId())
+                    .name(category.getName())
                     .build();
         }
 
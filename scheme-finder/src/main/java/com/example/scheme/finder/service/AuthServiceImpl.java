@@ -3,45 +3,32 @@ package com.example.scheme.finder.service;
 
 import com.example.scheme.finder.dto.AuthDto;
 import com.example.scheme.finder.dto.UserDto;
-import com.example.scheme.finder.entity.RefreshToken;
 import com.example.scheme.finder.entity.User;
 import com.example.scheme.finder.exception.BadRequestException;
 import com.example.scheme.finder.exception.UnauthorizedException;
-import com.example.scheme.finder.repository.RefreshTokenRepository;
 import com.example.scheme.finder.repository.UserRepository;
 import com.example.scheme.finder.security.JwtUtil;
+import com.example.scheme.finder.security.RefreshTokenStore;
 import com.example.scheme.finder.security.UserPrincipal;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.util.UUID;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
-    @Value("${app.jwt.refresh-expiration}")
-    private long refreshExpiration;
-
     @Override
     @Transactional
     public AuthDto.AuthResponse register(AuthDto.RegisterRequest request) {
@@ -107,18 +94,17 @@ public class AuthServiceImpl implements AuthService {
     @Override
     @Transactional
     public AuthDto.AuthResponse refreshToken(AuthDto.RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
-                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(request.getRefreshToken())
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token. Please login again."));
 
-        if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(refreshToken);
-            throw new UnauthorizedException("Refresh token has expired. Please login again.");
+        User user = userRepository.findById(rotation.getUserId())
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            throw new UnauthorizedException("Account is deactivated");
         }
-
-        User user = refreshToken.getUser();
         UserPrincipal userPrincipal = new UserPrincipal(user);
         String accessToken = jwtUtil.generateToken(userPrincipal);
-        String newRefreshToken = createRefreshToken(user);
+        String newRefreshToken = rotation.getToken();
 
         return AuthDto.AuthResponse.builder()
                 .accessToken(accessToken)
@@ -130,22 +116,12 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     @Transactional
-    public void logout(User user) {
-        refreshTokenRepository.deleteByUser(user);
-        entityManager.flush();
+    public void logout(Long userId) {
+        refreshTokenStore.revoke(userId);
     }
 
     private String createRefreshToken(User user) {
-        refreshTokenRepository.deleteByUser(user);
-        entityManager.flush();
-
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusMillis(refreshExpiration))
-                .build();
-
-        return refreshTokenRepository.save(refreshToken).getToken();
+        return refreshTokenStore.issue(user.getId());
     }
 
     private UserDto.UserResponse mapToUserResponse(User user) {
@@ -1,12 +1,14 @@
 package com.example.scheme.finder.service;
 
+import com.example.scheme.finder.cache.SchemeCounters;
 import com.example.scheme.finder.dto.CategoryDto;
 import com.example.scheme.finder.entity.Category;
+import com.example.scheme.finder.event.CategoryChangedEvent;
 import com.example.scheme.finder.exception.BadRequestException;
 import com.example.scheme.finder.exception.ResourceNotFoundException;
 import com.example.scheme.finder.repository.CategoryRepository;
-import com.example.scheme.finder.repository.SchemeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +20,8 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final SchemeRepository schemeRepository;
+    private final SchemeCounters schemeCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -36,7 +39,9 @@ public class CategoryServiceImpl implements CategoryService {
                 .isActive(true)
                 .build();
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved));
+        return mapToResponse(saved);
     }
 
     @Override
@@ -51,7 +56,9 @@ public class CategoryServiceImpl implements CategoryService {
         category.setColorCode(request.getColorCode());
         if (request.getDisplayOrder() != null) category.setDisplayOrder(request.getDisplayOrder());
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved));
+        return mapToResponse(saved);
     }
 
     @Override
@@ -82,6 +89,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category));
     }
 
 //    private CategoryDto.CategoryResponse mapToResponse(Category category) {
@@ -100,7 +108,7 @@ public class CategoryServiceImpl implements CategoryService {
 //    }
 
     private CategoryDto.CategoryResponse mapToResponse(Category category) {
-        Long schemeCount = categoryRepository.countActiveSchemesByCategoryId(category.getId());
+        long schemeCount = schemeCounters.activeSchemesInCategory(category.getId());
         return CategoryDto.CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
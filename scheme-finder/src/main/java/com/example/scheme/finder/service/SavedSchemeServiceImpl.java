@@ -1,17 +1,21 @@
 package com.example.scheme.finder.service;
 
+import com.example.scheme.finder.cache.CategoryDictionary;
+import com.example.scheme.finder.cache.SavedSchemeIdCache;
 import com.example.scheme.finder.dto.CategoryDto;
 import com.example.scheme.finder.dto.PagedResponse;
 import com.example.scheme.finder.dto.SchemeDto;
 import com.example.scheme.finder.entity.SavedScheme;
 import com.example.scheme.finder.entity.Scheme;
 import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.SavedSchemeChangedEvent;
 import com.example.scheme.finder.exception.BadRequestException;
 import com.example.scheme.finder.exception.ResourceNotFoundException;
 import com.example.scheme.finder.repository.SavedSchemeRepository;
 import com.example.scheme.finder.repository.SchemeRepository;
 import com.example.scheme.finder.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,6 +29,9 @@ public class SavedSchemeServiceImpl implements SavedSchemeService {
     private final SavedSchemeRepository savedSchemeRepository;
     private final SchemeRepository schemeRepository;
     private final UserRepository userRepository;
+    private final SavedSchemeIdCache savedSchemeIdCache;
+    private final CategoryDictionary categoryDictionary;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,6 +51,7 @@ public class SavedSchemeServiceImpl implements SavedSchemeService {
                 .build();
 
         savedSchemeRepository.save(savedScheme);
+        eventPublisher.publishEvent(new SavedSchemeChangedEvent(userId, schemeId, scheme));
     }
 
     @Override
@@ -53,6 +61,7 @@ public class SavedSchemeServiceImpl implements SavedSchemeService {
             throw new BadRequestException("Scheme is not saved");
         }
         savedSchemeRepository.deleteByUserIdAndSchemeId(userId, schemeId);
+        eventPublisher.publishEvent(new SavedSchemeChangedEvent(userId, schemeId, null));
     }
 
     @Override
@@ -62,19 +71,19 @@ public class SavedSchemeServiceImpl implements SavedSchemeService {
     }
 
     @Override
-    @Transactional
     public boolean isSchemesSaved(Long userId, Long schemeId) {
-        return savedSchemeRepository.existsByUserIdAndSchemeId(userId, schemeId);
+        return savedSchemeIdCache.isSaved(userId, schemeId);
     }
 
     private SchemeDto.SchemeSummary mapToSummary(Scheme scheme, Long userId) {
         CategoryDto.CategoryResponse catDto = null;
-        if (scheme.getCategory() != null) {
+        CategoryDictionary.CategorySnapshot category = categoryDictionary.resolve(scheme.getCategory());
+        if (category != null) {
             catDto = CategoryDto.CategoryResponse.builder()
-                    .id(scheme.getCategory().getId())
-                    .name(scheme.getCategory().getName())
-                    .iconUrl(scheme.getCategory().getIconUrl())
-                    .colorCode(scheme.getCategory().getColorCode())
+                    .id(category.getId())
+                    .name(category.getName())
+                    .iconUrl(category.getIconUrl())
+                    .colorCode(category.getColorCode())
                     .build();
         }
         return SchemeDto.SchemeSummary.builder()
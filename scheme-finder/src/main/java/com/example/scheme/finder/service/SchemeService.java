@@ -2,6 +2,7 @@ package com.example.scheme.finder.service;
 
 import com.example.scheme.finder.dto.PagedResponse;
 import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.eligibility.EligibilityBatch;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
 
@@ -9,12 +10,20 @@ public interface SchemeService {
     SchemeDto.SchemeResponse createScheme(SchemeDto.CreateSchemeRequest request);
     SchemeDto.SchemeResponse updateScheme(Long id, SchemeDto.CreateSchemeRequest request);
     SchemeDto.SchemeResponse getSchemeById(Long id, Long userId);
-    PagedResponse<SchemeDto.SchemeSummary> getAllSchemes(Pageable pageable, Long userId);
-    PagedResponse<SchemeDto.SchemeSummary> getSchemesByCategory(Long categoryId, Pageable pageable, Long userId);
-    PagedResponse<SchemeDto.SchemeSummary> getSchemesByState(String stateName, Pageable pageable, Long userId);
-    PagedResponse<SchemeDto.SchemeSummary> searchSchemes(String keyword, Pageable pageable, Long userId);
+    PagedResponse<SchemeDto.SchemeSummary> getAllSchemes(Pageable pageable, Long userId, boolean includeFacets);
+    PagedResponse<SchemeDto.SchemeSummary> getSchemesByCategory(Long categoryId, Pageable pageable, Long userId, boolean includeFacets);
+    PagedResponse<SchemeDto.SchemeSummary> getSchemesByState(String stateName, Pageable pageable, Long userId, boolean includeFacets);
+    PagedResponse<SchemeDto.SchemeSummary> searchSchemes(String keyword, boolean fuzzy, Pageable pageable, Long userId, boolean includeFacets);
     PagedResponse<SchemeDto.SchemeSummary> getEligibleSchemes(SchemeDto.EligibilityFilterRequest filter, Pageable pageable, Long userId);
     List<SchemeDto.SchemeSummary> getFeaturedSchemes(Long userId);
+    List<SchemeDto.TrendingScheme> getTrendingSchemes(int limit);
+    PagedResponse<SchemeDto.EligibilityExplanation> explainEligibleSchemes(SchemeDto.EligibilityFilterRequest filter, Pageable pageable, Long userId);
+    PagedResponse<SchemeDto.SchemeSummary> getEligibleSchemesForUser(Long userId, Pageable pageable);
+    EligibilityBatch prepareEligibilityBatch(List<SchemeDto.EligibilityFilterRequest> filters);
+    SchemeDto.SchemeMatchJobStatus getSchemeMatchJob(Long schemeId);
+    SchemeDto.SearchAnalyticsReport getSearchAnalytics(int limit);
+    SchemeDto.FilterResponse filterSchemes(SchemeDto.SchemeFilterRequest filter, Pageable pageable, Long userId);
+    List<SchemeDto.Suggestion> suggestSchemes(String query, int limit);
     void deleteScheme(Long id);
     SchemeDto.SchemeStats getStats();
 }
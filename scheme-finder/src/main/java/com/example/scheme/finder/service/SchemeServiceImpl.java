@@ -1,24 +1,58 @@
 package com.example.scheme.finder.service;
 
+import com.example.scheme.finder.analytics.SearchAnalytics;
+import com.example.scheme.finder.analytics.TrendingSchemeTracker;
+import com.example.scheme.finder.cache.CategoryDictionary;
+import com.example.scheme.finder.cache.SavedSchemeIdCache;
+import com.example.scheme.finder.cache.SchemeCounters;
+import com.example.scheme.finder.cache.SchemeDetailCache;
+import com.example.scheme.finder.cache.SchemeViewCounter;
 import com.example.scheme.finder.dto.CategoryDto;
 import com.example.scheme.finder.dto.PagedResponse;
 import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.eligibility.EligibilityBatch;
+import com.example.scheme.finder.eligibility.EligibilityBatchEvaluator;
+import com.example.scheme.finder.eligibility.EligibilityEngine;
+import com.example.scheme.finder.eligibility.EligibilityProfile;
+import com.example.scheme.finder.eligibility.SchemeMatchJobRunner;
+import com.example.scheme.finder.eligibility.UserEligibilityCache;
 import com.example.scheme.finder.entity.Category;
 import com.example.scheme.finder.entity.Scheme;
 import com.example.scheme.finder.entity.SchemeFaq;
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.exception.BadRequestException;
 import com.example.scheme.finder.exception.ResourceNotFoundException;
+import com.example.scheme.finder.exception.ServiceUnavailableException;
 import com.example.scheme.finder.repository.CategoryRepository;
-import com.example.scheme.finder.repository.SavedSchemeRepository;
 import com.example.scheme.finder.repository.SchemeRepository;
+import com.example.scheme.finder.repository.SchemeSpecifications;
 import com.example.scheme.finder.repository.UserRepository;
+import com.example.scheme.finder.search.FacetField;
+import com.example.scheme.finder.search.SchemeFacetIndex;
+import com.example.scheme.finder.search.SchemeQueryPlanner;
+import com.example.scheme.finder.search.SchemeSearchIndex;
+import com.example.scheme.finder.search.SchemeTokenizer;
+import com.example.scheme.finder.search.SuggestionIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +63,23 @@ public class SchemeServiceImpl implements SchemeService {
 
     private final SchemeRepository schemeRepository;
     private final CategoryRepository categoryRepository;
-    private final SavedSchemeRepository savedSchemeRepository;
+    private final SavedSchemeIdCache savedSchemeIdCache;
+    private final CategoryDictionary categoryDictionary;
+    private final SchemeCounters schemeCounters;
+    private final SchemeViewCounter schemeViewCounter;
+    private final SchemeDetailCache schemeDetailCache;
+    private final TrendingSchemeTracker trendingSchemeTracker;
+    private final SearchAnalytics searchAnalytics;
     private final UserRepository userRepository;
+    private final SchemeSearchIndex schemeSearchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final SchemeFacetIndex schemeFacetIndex;
+    private final SchemeQueryPlanner schemeQueryPlanner;
+    private final EligibilityEngine eligibilityEngine;
+    private final EligibilityBatchEvaluator eligibilityBatchEvaluator;
+    private final UserEligibilityCache userEligibilityCache;
+    private final SchemeMatchJobRunner schemeMatchJobRunner;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -85,6 +134,7 @@ public class SchemeServiceImpl implements SchemeService {
             schemeRepository.save(saved);
         }
 
+        eventPublisher.publishEvent(new SchemeChangedEvent(saved, SchemeChangedEvent.ChangeType.CREATED));
         return mapToSchemeResponse(saved, null);
     }
 
@@ -128,71 +178,154 @@ public class SchemeServiceImpl implements SchemeService {
         if (request.getIsFeatured() != null) scheme.setIsFeatured(request.getIsFeatured());
 
         Scheme updated = schemeRepository.save(scheme);
+        eventPublisher.publishEvent(new SchemeChangedEvent(updated, SchemeChangedEvent.ChangeType.UPDATED));
         return mapToSchemeResponse(updated, null);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SchemeDto.SchemeResponse getSchemeById(Long id, Long userId) {
-        Scheme scheme = schemeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Scheme", "id", id));
-        schemeRepository.incrementViewCount(id);
-        return mapToSchemeResponse(scheme, userId);
+        SchemeDto.SchemeResponse scheme = schemeDetailCache.get(id, this::loadSchemeResponse);
+        schemeViewCounter.recordView(id);
+        trendingSchemeTracker.recordView(scheme);
+        searchAnalytics.recordSchemeView(id);
+        return scheme.toBuilder()
+                .isSaved(savedSchemeIdCache.isSaved(userId, id))
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<SchemeDto.SchemeSummary> getAllSchemes(Pageable pageable, Long userId) {
+    public PagedResponse<SchemeDto.SchemeSummary> getAllSchemes(Pageable pageable, Long userId, boolean includeFacets) {
         Page<Scheme> schemes = schemeRepository.findByStatus(Scheme.SchemeStatus.ACTIVE, pageable);
-        return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        PagedResponse<SchemeDto.SchemeSummary> response = PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        if (includeFacets && schemeFacetIndex.isReady()) {
+            response.setFacets(schemeFacetIndex.countAll());
+        }
+        return response;
     }
 
     @Override
     @Transactional
-    public PagedResponse<SchemeDto.SchemeSummary> getSchemesByCategory(Long categoryId, Pageable pageable, Long userId) {
+    public PagedResponse<SchemeDto.SchemeSummary> getSchemesByCategory(Long categoryId, Pageable pageable, Long userId, boolean includeFacets) {
         Page<Scheme> schemes = schemeRepository.findByCategoryIdAndStatus(categoryId, Scheme.SchemeStatus.ACTIVE, pageable);
-        return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        PagedResponse<SchemeDto.SchemeSummary> response = PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        if (includeFacets && schemeFacetIndex.isReady()) {
+            response.setFacets(schemeFacetIndex.countWithin(FacetField.CATEGORY, String.valueOf(categoryId)));
+        }
+        return response;
     }
 
     @Override
     @Transactional
-    public PagedResponse<SchemeDto.SchemeSummary> getSchemesByState(String stateName, Pageable pageable, Long userId) {
+    public PagedResponse<SchemeDto.SchemeSummary> getSchemesByState(String stateName, Pageable pageable, Long userId, boolean includeFacets) {
         Page<Scheme> schemes = schemeRepository.findByStateNameAndStatus(stateName, Scheme.SchemeStatus.ACTIVE, pageable);
-        return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        PagedResponse<SchemeDto.SchemeSummary> response = PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        if (includeFacets && schemeFacetIndex.isReady()) {
+            response.setFacets(schemeFacetIndex.countWithin(FacetField.STATE, stateName));
+        }
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<SchemeDto.SchemeSummary> searchSchemes(String keyword, Pageable pageable, Long userId) {
-        Page<Scheme> schemes = schemeRepository.searchByKeyword(keyword, pageable);
-        return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+    public PagedResponse<SchemeDto.SchemeSummary> searchSchemes(String keyword, boolean fuzzy, Pageable pageable, Long userId, boolean includeFacets) {
+        // Stop words and single letters are never indexed; a query made only of them matches nothing
+        if (SchemeTokenizer.tokenize(keyword).isEmpty()) {
+            searchAnalytics.recordSearch(keyword, 0);
+            return PagedResponse.of(new PageImpl<SchemeDto.SchemeSummary>(List.of(), pageable, 0));
+        }
+
+        Optional<SchemeSearchIndex.SearchResult> result = schemeSearchIndex.isReady()
+                ? schemeSearchIndex.search(keyword, fuzzy, offsetOf(pageable), pageable.getPageSize())
+                : Optional.empty();
+
+        if (result.isEmpty()) {
+            Page<Scheme> schemes = schemeRepository.searchByKeyword(keyword, pageable);
+            searchAnalytics.recordSearch(keyword, schemes.getTotalElements());
+            return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        }
+
+        searchAnalytics.recordSearch(keyword, result.get().getTotalHits());
+        List<Scheme> schemes = findAllInOrder(result.get().getSchemeIds());
+        Page<Scheme> page = new PageImpl<>(schemes, pageable, result.get().getTotalHits());
+        PagedResponse<SchemeDto.SchemeSummary> response = PagedResponse.of(page.map(s -> mapToSchemeSummary(s, userId)));
+        if (includeFacets && schemeFacetIndex.isReady()) {
+            schemeSearchIndex.findMatchingIds(keyword, fuzzy)
+                    .ifPresent(ids -> response.setFacets(schemeFacetIndex.countWithin(ids)));
+        }
+        return response;
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public PagedResponse<SchemeDto.SchemeSummary> getEligibleSchemes(SchemeDto.EligibilityFilterRequest filter, Pageable pageable, Long userId) {
-        Scheme.GenderEligibility gender = null;
-        if (filter.getGender() != null && !filter.getGender().isEmpty()) {
-            try {
-                gender = Scheme.GenderEligibility.valueOf(filter.getGender().toUpperCase());
-            } catch (IllegalArgumentException ignored) {}
-        }
+        EligibilityProfile profile = EligibilityProfile.from(filter);
+        Optional<EligibilityEngine.MatchResult> result =
+                eligibilityEngine.match(profile, offsetOf(pageable), pageable.getPageSize());
 
-        Page<Scheme> schemes = schemeRepository.findEligibleSchemes(
-                filter.getAge(),
-                filter.getAge(),
-                filter.getAge(),
-                gender,
-                filter.getAnnualIncome(),
-                filter.getIsDisabled() != null ? filter.getIsDisabled() : false,
-                filter.getIsStudent() != null ? filter.getIsStudent() : false,
-                filter.getIsEmployed() != null ? filter.getIsEmployed() : false,
-                pageable
-        );
+        Page<Scheme> schemes = result.isPresent()
+                ? new PageImpl<>(findAllInOrder(result.get().getSchemeIds()), pageable, result.get().getTotalMatches())
+                : findEligibleInDatabase(profile, pageable);
 
+        searchAnalytics.recordEligibilityCheck(profile, schemes.getTotalElements());
         return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<SchemeDto.EligibilityExplanation> explainEligibleSchemes(SchemeDto.EligibilityFilterRequest filter, Pageable pageable, Long userId) {
+        EligibilityProfile profile = EligibilityProfile.from(filter);
+        EligibilityEngine.ExplainResult result = eligibilityEngine
+                .explain(profile, offsetOf(pageable), pageable.getPageSize())
+                .orElseThrow(() -> new ServiceUnavailableException("Eligibility rules are still loading, please retry shortly"));
+
+        List<Long> ids = result.getExplanations().stream()
+                .map(EligibilityEngine.Explanation::getSchemeId)
+                .collect(Collectors.toList());
+        Map<Long, Scheme> schemes = findAllInOrder(ids).stream()
+                .collect(Collectors.toMap(Scheme::getId, Function.identity()));
+
+        int evaluated = result.getEvaluatedCriteria();
+        List<SchemeDto.EligibilityExplanation> explanations = new ArrayList<>(ids.size());
+        for (EligibilityEngine.Explanation explanation : result.getExplanations()) {
+            Scheme scheme = schemes.get(explanation.getSchemeId());
+            if (scheme == null) continue;
+            explanations.add(mapToExplanation(scheme, evaluated, explanation.getFailedCriteria(), userId));
+        }
+        return PagedResponse.of(new PageImpl<>(explanations, pageable, result.getTotalSchemes()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<SchemeDto.SchemeSummary> getEligibleSchemesForUser(Long userId, Pageable pageable) {
+        Optional<long[]> eligible = userEligibilityCache.eligibleSchemeIds(userId);
+        if (eligible.isEmpty()) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+            Page<Scheme> schemes = findEligibleInDatabase(EligibilityProfile.of(user), pageable);
+            return PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId)));
+        }
+
+        long[] ids = eligible.get();
+        List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+        for (long i = pageable.getOffset(); i < ids.length && pageIds.size() < pageable.getPageSize(); i++) {
+            pageIds.add(ids[(int) i]);
+        }
+        Page<Scheme> page = new PageImpl<>(findAllInOrder(pageIds), pageable, ids.length);
+        return PagedResponse.of(page.map(s -> mapToSchemeSummary(s, userId)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EligibilityBatch prepareEligibilityBatch(List<SchemeDto.EligibilityFilterRequest> filters) {
+        int missing = filters.indexOf(null);
+        if (missing >= 0) {
+            throw new BadRequestException("Profile " + missing + " in the batch is null");
+        }
+        return eligibilityBatchEvaluator.prepare(filters.stream().map(EligibilityProfile::from).collect(Collectors.toList()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<SchemeDto.SchemeSummary> getFeaturedSchemes(Long userId) {
@@ -200,32 +333,148 @@ public class SchemeServiceImpl implements SchemeService {
         return schemes.stream().map(s -> mapToSchemeSummary(s, userId)).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SchemeDto.TrendingScheme> getTrendingSchemes(int limit) {
+        return trendingSchemeTracker.top(limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SchemeDto.SchemeMatchJobStatus getSchemeMatchJob(Long schemeId) {
+        return schemeMatchJobRunner.getStatus(schemeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Scheme match job", "schemeId", schemeId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SchemeDto.SearchAnalyticsReport getSearchAnalytics(int limit) {
+        return searchAnalytics.report(limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SchemeDto.FilterResponse filterSchemes(SchemeDto.SchemeFilterRequest filter, Pageable pageable, Long userId) {
+        SchemeQueryPlanner.QueryPlan plan = schemeQueryPlanner.plan(filter);
+
+        Page<Scheme> schemes;
+        if (plan.getPath() == SchemeDto.FilterPath.INDEX) {
+            // Newest first, the same order the specification path sorts by
+            long[] ids = plan.getSchemeIds();
+            List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+            for (long i = ids.length - 1 - pageable.getOffset(); i >= 0 && pageIds.size() < pageable.getPageSize(); i--) {
+                pageIds.add(ids[(int) i]);
+            }
+            schemes = new PageImpl<>(findAllInOrder(pageIds), pageable, ids.length);
+        } else if (plan.getSchemeIds() != null) {
+            schemes = findInCandidateChunks(plan.getSchemeIds(), plan.getSpecification(), pageable);
+        } else {
+            schemes = schemeRepository.findAll(plan.getSpecification(), pageable);
+        }
+
+        return SchemeDto.FilterResponse.builder()
+                .results(PagedResponse.of(schemes.map(s -> mapToSchemeSummary(s, userId))))
+                .path(plan.getPath())
+                .steps(plan.getSteps())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SchemeDto.Suggestion> suggestSchemes(String query, int limit) {
+        return suggestionIndex.suggest(query, limit);
+    }
+
     @Override
     @Transactional
     public void deleteScheme(Long id) {
         Scheme scheme = schemeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Scheme", "id", id));
         schemeRepository.delete(scheme);
+        eventPublisher.publishEvent(new SchemeChangedEvent(scheme, SchemeChangedEvent.ChangeType.DELETED));
     }
 
     @Override
     @Transactional
     public SchemeDto.SchemeStats getStats() {
         long totalSchemes = schemeRepository.count();
-        long activeSchemes = schemeRepository.countActiveSchemes();
+        long activeSchemes = schemeCounters.activeSchemes();
         long totalUsers = userRepository.count();
 
         return SchemeDto.SchemeStats.builder()
                 .totalSchemes(totalSchemes)
                 .activeSchemes(activeSchemes)
+                .centralSchemes(schemeCounters.activeSchemesByLevel(Scheme.SchemeLevel.CENTRAL))
+                .stateSchemes(schemeCounters.activeSchemesByLevel(Scheme.SchemeLevel.STATE))
+                .schemesByState(schemeCounters.activeSchemesByState())
                 .totalUsers(totalUsers)
                 .build();
     }
 
+    // The JPQL query cannot match the CSV category and state columns the way the engine does, so a
+    // profile using them waits for the engine rather than getting different results
+    private Page<Scheme> findEligibleInDatabase(EligibilityProfile profile, Pageable pageable) {
+        if (profile.getCategory() != null || profile.getState() != null) {
+            throw new ServiceUnavailableException("Eligibility rules are still loading, please retry shortly");
+        }
+        return schemeRepository.findEligibleSchemes(
+                profile.getAge(),
+                profile.getAge(),
+                profile.getAge(),
+                profile.getGender(),
+                profile.getAnnualIncome(),
+                profile.isDisabled(),
+                profile.isStudent(),
+                profile.isEmployed(),
+                pageable
+        );
+    }
+
+    // FAQs come in the same query and the category from the dictionary, so nothing is lazy-loaded
+    private SchemeDto.SchemeResponse loadSchemeResponse(long id) {
+        Scheme scheme = schemeRepository.findWithFaqsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Scheme", "id", id));
+        return mapToSchemeResponse(scheme, null);
+    }
+
+    // Newest chunk first: each chunk's matches are counted, and rows are loaded only from the chunks
+    // the requested page falls in, so no query binds more than MAX_IN_LIST_SIZE ids
+    private Page<Scheme> findInCandidateChunks(long[] ids, Specification<Scheme> residual, Pageable pageable) {
+        long offset = pageable.getOffset();
+        long total = 0;
+        List<Scheme> page = new ArrayList<>(pageable.getPageSize());
+        for (int end = ids.length; end > 0; end -= SchemeQueryPlanner.MAX_IN_LIST_SIZE) {
+            long[] chunk = Arrays.copyOfRange(ids, Math.max(0, end - SchemeQueryPlanner.MAX_IN_LIST_SIZE), end);
+            Specification<Scheme> specification = residual.and(SchemeSpecifications.idIn(chunk));
+            long matches = schemeRepository.count(specification);
+            if (page.size() < pageable.getPageSize() && offset < total + matches) {
+                int skip = (int) Math.max(0, offset - total);
+                int wanted = skip + pageable.getPageSize() - page.size();
+                List<Scheme> rows = schemeRepository.findAll(specification,
+                        PageRequest.of(0, wanted, Sort.by("id").descending())).getContent();
+                page.addAll(rows.subList(Math.min(skip, rows.size()), rows.size()));
+            }
+            total += matches;
+        }
+        return new PageImpl<>(page, pageable, total);
+    }
+
+    // Deep pages past Integer.MAX_VALUE are clamped; the in-memory indexes answer them with an empty page
+    private static int offsetOf(Pageable pageable) {
+        return (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+    }
+
+    private List<Scheme> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Long, Scheme> byId = schemeRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Scheme::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     // --- Mapper Methods ---
 
     private SchemeDto.SchemeResponse mapToSchemeResponse(Scheme scheme, Long userId) {
-        Boolean isSaved = userId != null && savedSchemeRepository.existsByUserIdAndSchemeId(userId, scheme.getId());
+        Boolean isSaved = savedSchemeIdCache.isSaved(userId, scheme.getId());
 
         List<SchemeDto.FaqResponse> faqs = scheme.getFaqs() != null
                 ? scheme.getFaqs().stream()
@@ -272,12 +521,32 @@ public class SchemeServiceImpl implements SchemeService {
                 .isFeatured(scheme.getIsFeatured())
                 .faqs(faqs)
                 .createdAt(scheme.getCreatedAt())
+                .updatedAt(scheme.getUpdatedAt())
                 .isSaved(isSaved)
                 .build();
     }
 
+    private SchemeDto.EligibilityExplanation mapToExplanation(Scheme scheme, int evaluated, int failed, Long userId) {
+        List<SchemeDto.EligibilityCriterion> passedCriteria = new ArrayList<>();
+        List<SchemeDto.EligibilityCriterion> failedCriteria = new ArrayList<>();
+        for (SchemeDto.EligibilityCriterion criterion : SchemeDto.EligibilityCriterion.values()) {
+            int bit = 1 << criterion.ordinal();
+            if ((evaluated & bit) == 0) continue;
+            if ((failed & bit) != 0) failedCriteria.add(criterion);
+            else passedCriteria.add(criterion);
+        }
+        int total = passedCriteria.size() + failedCriteria.size();
+        return SchemeDto.EligibilityExplanation.builder()
+                .scheme(mapToSchemeSummary(scheme, userId))
+                .eligible(failed == 0)
+                .score(total == 0 ? 1.0 : (double) passedCriteria.size() / total)
+                .passedCriteria(passedCriteria)
+                .failedCriteria(failedCriteria)
+                .build();
+    }
+
     private SchemeDto.SchemeSummary mapToSchemeSummary(Scheme scheme, Long userId) {
-        Boolean isSaved = userId != null && savedSchemeRepository.existsByUserIdAndSchemeId(userId, scheme.getId());
+        Boolean isSaved = savedSchemeIdCache.isSaved(userId, scheme.getId());
 
         return SchemeDto.SchemeSummary.builder()
                 .id(scheme.getId())
@@ -297,7 +566,8 @@ public class SchemeServiceImpl implements SchemeService {
                 .build();
     }
 
-    private CategoryDto.CategoryResponse mapToCategoryResponse(Category category) {
+    private CategoryDto.CategoryResponse mapToCategoryResponse(Category entity) {
+        CategoryDictionary.CategorySnapshot category = categoryDictionary.resolve(entity);
         if (category == null) return null;
         return CategoryDto.CategoryResponse.builder()
                 .id(category.getId())
@@ -2,11 +2,16 @@ package com.example.scheme.finder.service;
 
 import com.example.scheme.finder.dto.PagedResponse;
 import com.example.scheme.finder.dto.UserDto;
+import com.example.scheme.finder.eligibility.EligibilityProfile;
 import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.UserProfileChangedEvent;
+import com.example.scheme.finder.event.UserTokensRevokedEvent;
 import com.example.scheme.finder.exception.BadRequestException;
 import com.example.scheme.finder.exception.ResourceNotFoundException;
 import com.example.scheme.finder.repository.UserRepository;
+import com.example.scheme.finder.security.RefreshTokenStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,7 +23,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto.UserResponse getProfile(Long userId) {
@@ -32,6 +39,7 @@ public class UserServiceImpl implements UserService {
     public UserDto.UserResponse updateProfile(Long userId, UserDto.UpdateProfileRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        EligibilityProfile previousProfile = EligibilityProfile.of(user);
 
         if (request.getFullName() != null) user.setFullName(request.getFullName());
         if (request.getMobileNumber() != null) user.setMobileNumber(request.getMobileNumber());
@@ -45,7 +53,11 @@ public class UserServiceImpl implements UserService {
         if (request.getIsEmployed() != null) user.setIsEmployed(request.getIsEmployed());
         if (request.getAnnualIncome() != null) user.setAnnualIncome(request.getAnnualIncome());
 
-        return mapToResponse(userRepository.save(user));
+        User saved = userRepository.save(user);
+        if (!previousProfile.equals(EligibilityProfile.of(saved))) {
+            eventPublisher.publishEvent(new UserProfileChangedEvent(saved));
+        }
+        return mapToResponse(saved);
     }
 
     @Override
@@ -59,6 +71,7 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        revokeTokens(user);
         userRepository.save(user);
     }
 
@@ -73,10 +86,25 @@ public class UserServiceImpl implements UserService {
     public void deactivateUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-        user.setIsActive(false);
+        changeAccess(user, false);
         userRepository.save(user);
     }
 
+    // The active flag travels inside access tokens, so changing it must outdate every token issued
+    private void changeAccess(User user, boolean active) {
+        boolean changed = !Boolean.valueOf(active).equals(user.getIsActive());
+        user.setIsActive(active);
+        if (changed) revokeTokens(user);
+    }
+
+    // Access tokens die with the epoch bump once the transaction commits; refresh tokens are removed outright
+    private void revokeTokens(User user) {
+        long epoch = (user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L) + 1;
+        user.setTokenEpoch(epoch);
+        refreshTokenStore.revoke(user.getId());
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(user.getId(), epoch));
+    }
+
     private UserDto.UserResponse mapToResponse(User user) {
         return UserDto.UserResponse.builder()
                 .id(user.getId())
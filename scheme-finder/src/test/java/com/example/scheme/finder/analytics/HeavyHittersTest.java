@@ -0,0 +1,98 @@
+package com.example.scheme.finder.analytics;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHittersTest {
+
+	@Test
+	void sketchNeverUndercountsAndStaysWithinItsErrorBound() {
+		CountMinSketch sketch = new CountMinSketch(256, 4);
+		Map<String, Long> truth = new HashMap<>();
+		Random random = new Random(42);
+		long total = 0;
+		for (int i = 0; i < 2000; i++) {
+			long count = 1 + random.nextInt(20);
+			sketch.add("query " + i, count);
+			truth.merge("query " + i, count, Long::sum);
+			total += count;
+		}
+
+		for (Map.Entry<String, Long> entry : truth.entrySet()) {
+			assertThat(sketch.estimate(entry.getKey()))
+					.isGreaterThanOrEqualTo(entry.getValue())
+					.isLessThanOrEqualTo(entry.getValue() + 2 * total / 256);
+		}
+	}
+
+	@Test
+	void sketchRestoresOnlyMatchingDimensions() throws IOException {
+		CountMinSketch sketch = new CountMinSketch(64, 3);
+		sketch.add("kisan", 5);
+		byte[] checkpoint = write(sketch);
+
+		CountMinSketch restored = new CountMinSketch(64, 3);
+		assertThat(restored.readFrom(read(checkpoint))).isTrue();
+		assertThat(restored.estimate("kisan")).isEqualTo(5);
+		assertThat(new CountMinSketch(128, 3).readFrom(read(checkpoint))).isFalse();
+	}
+
+	@Test
+	void keepsTheHeaviestKeysOfASkewedStreamInOrder() {
+		HeavyHitters hitters = new HeavyHitters(1024, 4, 5);
+		List<String> stream = new ArrayList<>();
+		for (int rank = 1; rank <= 200; rank++) {
+			for (int i = 0; i < 1000 / rank; i++) stream.add("k" + rank);
+		}
+		Collections.shuffle(stream, new Random(42));
+		stream.forEach(hitters::add);
+
+		assertThat(hitters.top(10)).extracting(SchemeDto.HeavyHitter::getKey)
+				.containsExactly("k1", "k2", "k3", "k4", "k5");
+		assertThat(hitters.top(2)).extracting(SchemeDto.HeavyHitter::getCount).containsExactly(1000L, 500L);
+		assertThat(hitters.total()).isEqualTo(stream.size());
+		assertThat(hitters.top(-1)).isEmpty();
+	}
+
+	@Test
+	void roundTripsThroughACheckpoint() throws IOException {
+		HeavyHitters hitters = new HeavyHitters(256, 4, 3);
+		for (int i = 0; i < 3; i++) hitters.add("kisan");
+		hitters.add("pension");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hitters.writeTo(new DataOutputStream(bytes));
+
+		HeavyHitters restored = new HeavyHitters(256, 4, 3);
+		assertThat(restored.readFrom(read(bytes.toByteArray()))).isTrue();
+		assertThat(restored.total()).isEqualTo(4);
+		assertThat(restored.top(10)).extracting(SchemeDto.HeavyHitter::getKey).containsExactly("kisan", "pension");
+
+		HeavyHitters resized = new HeavyHitters(512, 4, 3);
+		assertThat(resized.readFrom(read(bytes.toByteArray()))).isFalse();
+		assertThat(resized.top(10)).isEmpty();
+	}
+
+	private static byte[] write(CountMinSketch sketch) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		sketch.writeTo(new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static DataInputStream read(byte[] bytes) {
+		return new DataInputStream(new ByteArrayInputStream(bytes));
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.scheme.finder.analytics;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.eligibility.EligibilityProfile;
+import com.example.scheme.finder.eligibility.SocialCategory;
+import com.example.scheme.finder.entity.Scheme;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchAnalyticsTest {
+
+	@TempDir
+	Path checkpointDir;
+
+	@Test
+	void normalisesQueriesAndTracksZeroResultSearches() {
+		SearchAnalytics analytics = newAnalytics(512);
+
+		analytics.recordSearch("  Kisan   Card ", 3);
+		analytics.recordSearch("kisan card", 0);
+		analytics.recordSearch("   ", 0);
+		analytics.recordSearch(null, 0);
+		analytics.recordSearch("x".repeat(150), 1);
+
+		SchemeDto.SearchAnalyticsReport report = analytics.report(10);
+		assertThat(report.getSearches()).isEqualTo(3);
+		assertThat(report.getZeroResultSearches()).isEqualTo(1);
+		assertThat(report.getTopQueries()).extracting(SchemeDto.HeavyHitter::getKey)
+				.containsExactly("kisan card", "x".repeat(100));
+		assertThat(report.getTopZeroResultQueries()).extracting(SchemeDto.HeavyHitter::getKey)
+				.containsExactly("kisan card");
+	}
+
+	@Test
+	void bucketsEligibilityProfilesAndCountsViews() {
+		SearchAnalytics analytics = newAnalytics(512);
+
+		analytics.recordEligibilityCheck(profile(34), 2);
+		analytics.recordEligibilityCheck(profile(37), 0);
+		analytics.recordSchemeView(7L);
+
+		SchemeDto.SearchAnalyticsReport report = analytics.report(10);
+		assertThat(report.getTopEligibilityProfiles()).singleElement()
+				.satisfies(hitter -> {
+					assertThat(hitter.getKey()).isEqualTo("gender=FEMALE, age=30s, category=SC, state=kerala");
+					assertThat(hitter.getCount()).isEqualTo(2);
+				});
+		assertThat(report.getZeroResultEligibilityChecks()).isEqualTo(1);
+		assertThat(report.getSchemeViews()).isEqualTo(1);
+		assertThat(report.getTopSchemes()).extracting(SchemeDto.HeavyHitter::getKey).containsExactly("7");
+	}
+
+	@Test
+	void restoresFromACheckpoint() {
+		SearchAnalytics analytics = newAnalytics(512);
+		analytics.recordSearch("pension", 0);
+		analytics.recordSchemeView(7L);
+		analytics.stop();
+
+		SearchAnalytics restored = newAnalytics(512);
+
+		SchemeDto.SearchAnalyticsReport report = restored.report(10);
+		assertThat(report.getSince()).isEqualTo(analytics.report(10).getSince());
+		assertThat(report.getSearches()).isEqualTo(1);
+		assertThat(report.getTopZeroResultQueries()).extracting(SchemeDto.HeavyHitter::getKey)
+				.containsExactly("pension");
+		assertThat(report.getSchemeViews()).isEqualTo(1);
+	}
+
+	@Test
+	void startsEmptyWhenTheCheckpointHasOtherDimensions() {
+		SearchAnalytics analytics = newAnalytics(512);
+		analytics.recordSearch("pension", 0);
+		analytics.checkpoint();
+
+		SchemeDto.SearchAnalyticsReport report = newAnalytics(1024).report(10);
+		assertThat(report.getSearches()).isZero();
+		assertThat(report.getTopQueries()).isEmpty();
+	}
+
+	private SearchAnalytics newAnalytics(int width) {
+		SearchAnalytics created = new SearchAnalytics();
+		ReflectionTestUtils.setField(created, "width", width);
+		ReflectionTestUtils.setField(created, "depth", 4);
+		ReflectionTestUtils.setField(created, "topK", 10);
+		ReflectionTestUtils.setField(created, "checkpointPath", checkpointDir.resolve("analytics.checkpoint").toString());
+		created.start();
+		return created;
+	}
+
+	private static EligibilityProfile profile(int age) {
+		return new EligibilityProfile(age, Scheme.GenderEligibility.FEMALE, null, false, false, false,
+				SocialCategory.SC, "kerala");
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.scheme.finder.analytics;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SavedSchemeChangedEvent;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingSchemeTrackerTest {
+
+	@TempDir
+	Path snapshotDir;
+
+	private TrendingSchemeTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		tracker = newTracker();
+	}
+
+	@Test
+	void ranksSavesAboveViewsByTheirWeight() {
+		view(1L, "Viewed", 4);
+		save(2L, "Saved");
+		tracker.rank();
+
+		List<SchemeDto.TrendingScheme> top = tracker.top(10);
+		assertThat(top).extracting(SchemeDto.TrendingScheme::getSchemeId).containsExactly(2L, 1L);
+		assertThat(top.get(0).getSaves()).isEqualTo(1);
+		assertThat(top.get(1).getViews()).isEqualTo(4);
+	}
+
+	@Test
+	void ignoresUnsavesAndInactiveSchemes() {
+		tracker.onSavedSchemeChanged(new SavedSchemeChangedEvent(1L, 3L, null));
+		tracker.recordView(SchemeDto.SchemeResponse.builder()
+				.id(4L).title("Inactive").status(Scheme.SchemeStatus.INACTIVE).build());
+		tracker.rank();
+
+		assertThat(tracker.top(10)).isEmpty();
+	}
+
+	@Test
+	void dropsDeletedSchemes() {
+		view(1L, "Gone", 1);
+		Scheme scheme = Scheme.builder().id(1L).title("Gone").status(Scheme.SchemeStatus.ACTIVE).build();
+		tracker.onSchemeChanged(new SchemeChangedEvent(scheme, SchemeChangedEvent.ChangeType.DELETED));
+		tracker.rank();
+
+		assertThat(tracker.top(10)).isEmpty();
+	}
+
+	@Test
+	void limitsAndClampsTheResult() {
+		for (long id = 1; id <= 5; id++) {
+			view(id, "Scheme " + id, (int) id);
+		}
+		tracker.rank();
+
+		assertThat(tracker.top(2)).extracting(SchemeDto.TrendingScheme::getSchemeId).containsExactly(5L, 4L);
+		assertThat(tracker.top(-1)).isEmpty();
+	}
+
+	@Test
+	void restoresWindowsFromTheSnapshot() {
+		view(1L, "Persisted", 3);
+		tracker.snapshot();
+
+		TrendingSchemeTracker restored = newTracker();
+
+		assertThat(restored.top(10)).singleElement()
+				.satisfies(scheme -> {
+					assertThat(scheme.getSchemeId()).isEqualTo(1L);
+					assertThat(scheme.getTitle()).isEqualTo("Persisted");
+					assertThat(scheme.getViews()).isEqualTo(3);
+				});
+	}
+
+	private TrendingSchemeTracker newTracker() {
+		TrendingSchemeTracker created = new TrendingSchemeTracker();
+		ReflectionTestUtils.setField(created, "bucketMinutes", 60L);
+		ReflectionTestUtils.setField(created, "bucketCount", 24);
+		ReflectionTestUtils.setField(created, "halfLifeMinutes", 360.0);
+		ReflectionTestUtils.setField(created, "saveWeight", 5);
+		ReflectionTestUtils.setField(created, "maxResults", 100);
+		ReflectionTestUtils.setField(created, "snapshotPath", snapshotDir.resolve("trending.snapshot").toString());
+		created.start();
+		return created;
+	}
+
+	private void view(Long id, String title, int times) {
+		SchemeDto.SchemeResponse scheme = SchemeDto.SchemeResponse.builder()
+				.id(id).title(title).status(Scheme.SchemeStatus.ACTIVE).build();
+		for (int i = 0; i < times; i++) {
+			tracker.recordView(scheme);
+		}
+	}
+
+	private void save(Long id, String title) {
+		Scheme scheme = Scheme.builder().id(id).title(title).status(Scheme.SchemeStatus.ACTIVE).build();
+		tracker.onSavedSchemeChanged(new SavedSchemeChangedEvent(1L, id, scheme));
+	}
+}
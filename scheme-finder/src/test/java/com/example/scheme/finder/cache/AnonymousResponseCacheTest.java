@@ -0,0 +1,111 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnonymousResponseCacheTest {
+
+	private static final String JSON = "application/json";
+
+	private AnonymousResponseCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new AnonymousResponseCache();
+		ReflectionTestUtils.setField(cache, "maxEntries", 100);
+		ReflectionTestUtils.setField(cache, "maxBytes", 4_096L);
+		ReflectionTestUtils.setField(cache, "maxBodyBytes", 1_000);
+		ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+	}
+
+	@Test
+	void evictsOldestEntriesToStayWithinTheByteBudget() {
+		for (int i = 0; i < 20; i++) {
+			cache.put("/api/schemes?page=" + i, cache.generation(), JSON, new byte[500]);
+		}
+
+		assertThat(cache.totalBytes()).isLessThanOrEqualTo(4_096L);
+		assertThat(cache.get("/api/schemes?page=0")).isNull();
+		assertThat(cache.get("/api/schemes?page=19")).isNotNull();
+	}
+
+	@Test
+	void evictsOldestEntriesBeyondTheEntryLimit() {
+		ReflectionTestUtils.setField(cache, "maxEntries", 2);
+		cache.put("a", cache.generation(), JSON, new byte[1]);
+		cache.put("b", cache.generation(), JSON, new byte[1]);
+		cache.put("c", cache.generation(), JSON, new byte[1]);
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("b")).isNotNull();
+		assertThat(cache.get("c")).isNotNull();
+	}
+
+	@Test
+	void dropsExpiredEntriesOnInsertEvenIfNeverReadAgain() {
+		ReflectionTestUtils.setField(cache, "ttlMillis", 0L);
+		for (int i = 0; i < 20; i++) {
+			cache.put("/api/schemes?page=" + i, cache.generation(), JSON, new byte[500]);
+		}
+
+		assertThat(cache.get("/api/schemes?page=19")).isNull();
+		assertThat(cache.totalBytes()).isLessThan(1_000L);
+	}
+
+	@Test
+	void skipsBodiesLargerThanTheLimit() {
+		cache.put("big", cache.generation(), JSON, new byte[1_001]);
+
+		assertThat(cache.get("big")).isNull();
+		assertThat(cache.totalBytes()).isZero();
+	}
+
+	@Test
+	void doesNotStoreResponsesRenderedBeforeAnInvalidation() {
+		long generation = cache.generation();
+		cache.put("a", generation, JSON, new byte[10]);
+		cache.onCategoryChanged(new CategoryChangedEvent(null));
+		cache.put("b", generation, JSON, new byte[10]);
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.totalBytes()).isZero();
+	}
+
+	@Test
+	void compressesLargerBodies() {
+		ReflectionTestUtils.setField(cache, "maxBodyBytes", 2_000);
+		cache.put("small", cache.generation(), JSON, new byte[100]);
+		cache.put("large", cache.generation(), JSON, new byte[2_000]);
+
+		assertThat(cache.get("small").getGzipped()).isNull();
+		assertThat(cache.get("large").getGzipped()).isNotNull().hasSizeLessThan(2_000);
+	}
+
+	@Test
+	void keyIgnoresParametersTheHandlerDoesNotRead() {
+		String plain = AnonymousResponseCacheFilter.keyOf("/api/schemes", Map.of("page", new String[]{"1"}));
+		String junk = AnonymousResponseCacheFilter.keyOf("/api/schemes",
+				Map.of("page", new String[]{"1"}, "x", new String[]{"2"}));
+
+		assertThat(junk).isEqualTo(plain).isEqualTo("/api/schemes?page=1");
+		assertThat(AnonymousResponseCacheFilter.keyOf("/api/categories", Map.of("page", new String[]{"1"})))
+				.isEqualTo("/api/categories");
+	}
+
+	@Test
+	void keyEscapesParameterValues() {
+		String smuggled = AnonymousResponseCacheFilter.keyOf("/api/schemes",
+				Map.of("sortBy", new String[]{"createdAt&sortDir=asc"}));
+		String separate = AnonymousResponseCacheFilter.keyOf("/api/schemes",
+				Map.of("sortBy", new String[]{"createdAt"}, "sortDir", new String[]{"asc"}));
+
+		assertThat(smuggled).isNotEqualTo(separate);
+	}
+}
@@ -0,0 +1,169 @@
+package com.example.scheme.finder.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedCacheTest {
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryWhenFull() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(2, 0);
+		cache.put(1, "one");
+		cache.put(2, "two");
+		cache.getIfPresent(1);
+		cache.put(3, "three");
+
+		assertThat(cache.getIfPresent(1)).isEqualTo("one");
+		assertThat(cache.getIfPresent(2)).isNull();
+		assertThat(cache.getIfPresent(3)).isEqualTo("three");
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void keepsCachingNewKeysOnceFull() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+		for (int i = 0; i < 100; i++) {
+			cache.get(i, String::valueOf);
+		}
+
+		assertThat(cache.size()).isEqualTo(10);
+		assertThat(cache.getIfPresent(99)).isEqualTo("99");
+	}
+
+	@Test
+	void expiresEntriesAfterTheTtl() throws InterruptedException {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 20);
+		cache.put(1, "one");
+		Thread.sleep(40);
+
+		assertThat(cache.getIfPresent(1)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void dropsExpiredEntriesOnInsert() throws InterruptedException {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 20);
+		for (int i = 0; i < 5; i++) {
+			cache.put(i, "old");
+		}
+		Thread.sleep(40);
+		cache.put(5, "new");
+
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void loadsEachKeyOnceForConcurrentCallers() throws Exception {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> first = executor.submit(() -> cache.get(1, key -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				await(release);
+				return "one";
+			}));
+			loading.await();
+			Future<String> second = executor.submit(() -> cache.get(1, key -> {
+				loads.incrementAndGet();
+				return "other";
+			}));
+			Thread.sleep(50);
+			release.countDown();
+
+			assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+			assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+			assertThat(loads.get()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void doesNotStoreALoadThatRacedAnInvalidation() throws Exception {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> load = executor.submit(() -> cache.get(1, key -> {
+				loading.countDown();
+				await(release);
+				return "stale";
+			}));
+			loading.await();
+			cache.invalidate(1);
+			release.countDown();
+
+			assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+			assertThat(cache.getIfPresent(1)).isNull();
+			assertThat(cache.get(1, key -> "fresh")).isEqualTo("fresh");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void doesNotLetALoadOverwriteANewerPut() throws Exception {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> load = executor.submit(() -> cache.get(1, key -> {
+				loading.countDown();
+				await(release);
+				return "stale";
+			}));
+			loading.await();
+			cache.put(1, "newer");
+			release.countDown();
+			load.get(5, TimeUnit.SECONDS);
+
+			assertThat(cache.getIfPresent(1)).isEqualTo("newer");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void replacesOnlyTheExpectedValue() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+		String original = "one";
+		cache.put(1, original);
+
+		assertThat(cache.replace(1, "something else", "two")).isFalse();
+		assertThat(cache.replace(1, original, "two")).isTrue();
+		assertThat(cache.getIfPresent(1)).isEqualTo("two");
+	}
+
+	@Test
+	void propagatesLoaderFailuresWithoutCaching() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0);
+
+		assertThatThrownBy(() -> cache.get(1, key -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(cache.get(1, key -> "one")).isEqualTo("one");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.entity.Category;
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import com.example.scheme.finder.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryDictionaryTest {
+
+	private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+	private final CategoryDictionary dictionary = new CategoryDictionary(categoryRepository);
+
+	@BeforeEach
+	void setUp() {
+		when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "Agriculture")));
+		dictionary.reload();
+	}
+
+	@Test
+	void resolvesLoadedCategoriesByIdOnly() {
+		Category proxy = proxyOf(1L);
+
+		assertThat(dictionary.resolve(proxy).getName()).isEqualTo("Agriculture");
+		verify(proxy, never()).getName();
+		verify(categoryRepository, never()).findById(1L);
+	}
+
+	@Test
+	void looksUpAnUnseenIdInsteadOfReadingTheProxy() {
+		when(categoryRepository.findById(2L)).thenReturn(Optional.of(category(2L, "Health")));
+		Category proxy = proxyOf(2L);
+
+		assertThat(dictionary.resolve(proxy).getName()).isEqualTo("Health");
+		assertThat(dictionary.resolve(proxy).getName()).isEqualTo("Health");
+		verify(proxy, never()).getName();
+		verify(categoryRepository, times(1)).findById(2L);
+	}
+
+	@Test
+	void resolvesAMissingCategoryToNull() {
+		when(categoryRepository.findById(3L)).thenReturn(Optional.empty());
+
+		assertThat(dictionary.resolve(proxyOf(3L))).isNull();
+		assertThat(dictionary.resolve(null)).isNull();
+	}
+
+	@Test
+	void appliesChangeEvents() {
+		dictionary.onCategoryChanged(new CategoryChangedEvent(category(1L, "Farming")));
+
+		assertThat(dictionary.resolve(proxyOf(1L)).getName()).isEqualTo("Farming");
+	}
+
+	private static Category proxyOf(Long id) {
+		Category proxy = mock(Category.class);
+		when(proxy.getId()).thenReturn(id);
+		return proxy;
+	}
+
+	private static Category category(Long id, String name) {
+		return Category.builder()
+				.id(id)
+				.name(name)
+				.isActive(true)
+				.displayOrder(0)
+				.build();
+	}
+}
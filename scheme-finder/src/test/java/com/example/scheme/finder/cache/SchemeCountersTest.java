@@ -0,0 +1,123 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.entity.Category;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.CategoryRepository;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemeCountersTest {
+
+	private final SchemeRepository schemeRepository = mock(SchemeRepository.class);
+	private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+	private final SchemeCounters counters = new SchemeCounters(schemeRepository, categoryRepository);
+
+	@Test
+	void readsTheDatabaseUntilSeeded() {
+		when(schemeRepository.countActiveSchemes()).thenReturn(7L);
+		when(schemeRepository.countActiveSchemesByLevel(Scheme.SchemeLevel.STATE)).thenReturn(4L);
+		when(schemeRepository.countActiveSchemesByLevel(Scheme.SchemeLevel.CENTRAL)).thenReturn(3L);
+		when(categoryRepository.countActiveSchemesByCategoryId(1L)).thenReturn(2L);
+		when(schemeRepository.countSchemesByState()).thenReturn(rows(new Object[]{"Kerala", 4L}));
+
+		assertThat(counters.activeSchemes()).isEqualTo(7);
+		assertThat(counters.activeSchemesByLevel(Scheme.SchemeLevel.STATE)).isEqualTo(4);
+		assertThat(counters.activeSchemesByLevel(Scheme.SchemeLevel.CENTRAL)).isEqualTo(3);
+		assertThat(counters.activeSchemesInCategory(1L)).isEqualTo(2);
+		assertThat(counters.activeSchemesByState()).isEqualTo(Map.of("Kerala", 4L));
+	}
+
+	@Test
+	void answersFromMemoryOnceSeeded() {
+		seed();
+
+		assertThat(counters.activeSchemes()).isEqualTo(3);
+		assertThat(counters.activeSchemesByLevel(Scheme.SchemeLevel.STATE)).isEqualTo(2);
+		assertThat(counters.activeSchemesByLevel(Scheme.SchemeLevel.CENTRAL)).isEqualTo(1);
+		assertThat(counters.activeSchemesInCategory(1L)).isEqualTo(2);
+		assertThat(counters.activeSchemesByState()).isEqualTo(Map.of("Kerala", 1L, "Goa", 1L));
+		verify(schemeRepository, never()).countActiveSchemesByLevel(Scheme.SchemeLevel.STATE);
+	}
+
+	@Test
+	void movesASchemeBetweenPlacementsIdempotently() {
+		seed();
+		SchemeChangedEvent moved = new SchemeChangedEvent(
+				scheme(2L, 3L, Scheme.SchemeLevel.STATE, "Goa", Scheme.SchemeStatus.ACTIVE),
+				SchemeChangedEvent.ChangeType.UPDATED);
+
+		counters.onSchemeChanged(moved);
+		counters.onSchemeChanged(moved);
+
+		assertThat(counters.activeSchemesInCategory(1L)).isEqualTo(1);
+		assertThat(counters.activeSchemesInCategory(3L)).isEqualTo(1);
+		assertThat(counters.activeSchemesByState()).isEqualTo(Map.of("Goa", 2L));
+		assertThat(counters.activeSchemes()).isEqualTo(3);
+	}
+
+	@Test
+	void dropsInactiveAndDeletedSchemes() {
+		seed();
+
+		counters.onSchemeChanged(new SchemeChangedEvent(
+				scheme(1L, 1L, Scheme.SchemeLevel.CENTRAL, null, Scheme.SchemeStatus.INACTIVE),
+				SchemeChangedEvent.ChangeType.UPDATED));
+		counters.onSchemeChanged(new SchemeChangedEvent(
+				scheme(3L, 2L, Scheme.SchemeLevel.STATE, "Goa", Scheme.SchemeStatus.ACTIVE),
+				SchemeChangedEvent.ChangeType.DELETED));
+
+		assertThat(counters.activeSchemes()).isEqualTo(1);
+		assertThat(counters.activeSchemesByLevel(Scheme.SchemeLevel.CENTRAL)).isZero();
+		assertThat(counters.activeSchemesInCategory(2L)).isZero();
+		assertThat(counters.activeSchemesByState()).isEqualTo(Map.of("Kerala", 1L));
+	}
+
+	@Test
+	void reseedsWhenTheDatabaseDisagrees() {
+		seed();
+		when(categoryRepository.countActiveSchemesGroupByCategory()).thenReturn(rows(new Object[]{1L, 2L}));
+		when(schemeRepository.countSchemesByState()).thenReturn(rows(new Object[]{"Kerala", 1L}));
+		when(schemeRepository.findActiveSchemePlacements()).thenReturn(rows(
+				new Object[]{1L, 1L, Scheme.SchemeLevel.CENTRAL, null},
+				new Object[]{2L, 1L, Scheme.SchemeLevel.STATE, "Kerala"}));
+
+		counters.reconcile();
+
+		assertThat(counters.activeSchemes()).isEqualTo(2);
+		assertThat(counters.activeSchemesByState()).isEqualTo(Map.of("Kerala", 1L));
+	}
+
+	private void seed() {
+		when(schemeRepository.findActiveSchemePlacements()).thenReturn(rows(
+				new Object[]{1L, 1L, Scheme.SchemeLevel.CENTRAL, null},
+				new Object[]{2L, 1L, Scheme.SchemeLevel.STATE, "Kerala"},
+				new Object[]{3L, 2L, Scheme.SchemeLevel.STATE, "Goa"}));
+		counters.seed();
+	}
+
+	private static List<Object[]> rows(Object[]... rows) {
+		return new ArrayList<>(List.of(rows));
+	}
+
+	private static Scheme scheme(Long id, Long categoryId, Scheme.SchemeLevel level, String stateName,
+								 Scheme.SchemeStatus status) {
+		return Scheme.builder()
+				.id(id)
+				.category(Category.builder().id(categoryId).build())
+				.schemeLevel(level)
+				.stateName(stateName)
+				.status(status)
+				.build();
+	}
+}
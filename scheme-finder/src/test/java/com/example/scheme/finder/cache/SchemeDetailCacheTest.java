@@ -0,0 +1,74 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.CategoryChangedEvent;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemeDetailCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+	private final LongFunction<SchemeDto.SchemeResponse> loader = id -> {
+		loads.incrementAndGet();
+		return SchemeDto.SchemeResponse.builder().id(id).title("Scheme " + id).build();
+	};
+
+	private SchemeDetailCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new SchemeDetailCache();
+		ReflectionTestUtils.setField(cache, "maxEntries", 3);
+		ReflectionTestUtils.setField(cache, "ttlMillis", 600_000L);
+		cache.init();
+	}
+
+	@Test
+	void servesRepeatReadsFromTheCache() {
+		cache.get(1L, loader);
+		cache.get(1L, loader);
+
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	void keepsCachingSchemesBeyondTheLimit() {
+		for (long id = 1; id <= 10; id++) {
+			cache.get(id, loader);
+		}
+		cache.get(10L, loader);
+
+		assertThat(loads.get()).isEqualTo(10);
+	}
+
+	@Test
+	void reloadsAChangedScheme() {
+		cache.get(1L, loader);
+		cache.get(2L, loader);
+		Scheme changed = Scheme.builder().id(1L).build();
+		cache.onSchemeChanged(new SchemeChangedEvent(changed, SchemeChangedEvent.ChangeType.UPDATED));
+		cache.get(1L, loader);
+		cache.get(2L, loader);
+
+		assertThat(loads.get()).isEqualTo(3);
+	}
+
+	@Test
+	void reloadsEverythingAfterACategoryChange() {
+		cache.get(1L, loader);
+		cache.get(2L, loader);
+		cache.onCategoryChanged(new CategoryChangedEvent(null));
+		cache.get(1L, loader);
+		cache.get(2L, loader);
+
+		assertThat(loads.get()).isEqualTo(4);
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.scheme.finder.cache;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.event.SchemeViewsFlushedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class SchemeViewCounterTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final SchemeViewCounter counter = new SchemeViewCounter(jdbcTemplate, eventPublisher);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(counter, "chunkSize", 2);
+	}
+
+	@Test
+	void foldsPendingViewsIntoOneUpdatePerChunkInIdOrder() {
+		counter.recordView(3L);
+		counter.recordView(1L);
+		counter.recordView(1L);
+		counter.recordView(2L);
+
+		counter.flush();
+
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate, times(2)).update(sql.capture(), args.capture());
+		assertThat(sql.getAllValues().get(0)).isEqualTo("UPDATE schemes SET view_count = view_count + CASE id"
+				+ " WHEN ? THEN ? WHEN ? THEN ? ELSE 0 END WHERE id IN (?, ?)");
+		assertThat(args.getAllValues().get(0)).containsExactly(1L, 2L, 2L, 1L, 1L, 2L);
+		assertThat(args.getAllValues().get(1)).containsExactly(3L, 1L, 3L);
+
+		ArgumentCaptor<SchemeViewsFlushedEvent> events = ArgumentCaptor.forClass(SchemeViewsFlushedEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(events.capture());
+		assertThat(events.getAllValues().get(0).getDeltas()).isEqualTo(Map.of(1L, 2L, 2L, 1L));
+		assertThat(events.getAllValues().get(1).getDeltas()).isEqualTo(Map.of(3L, 1L));
+	}
+
+	@Test
+	void writesOnlyTheViewsSinceTheLastFlush() {
+		counter.recordView(1L);
+		counter.recordView(1L);
+		counter.flush();
+		counter.recordView(1L);
+		counter.flush();
+		counter.flush();
+
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+		assertThat(args.getAllValues().get(1)).containsExactly(1L, 1L, 1L);
+	}
+
+	@Test
+	void retriesAFailedFlush() {
+		doThrow(new DataAccessResourceFailureException("database down"))
+				.doReturn(1)
+				.when(jdbcTemplate).update(anyString(), any(Object[].class));
+		counter.recordView(1L);
+
+		counter.scheduledFlush();
+		counter.scheduledFlush();
+
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+		assertThat(args.getAllValues().get(1)).containsExactly(1L, 1L, 1L);
+		verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void forgetsViewsOfDeletedSchemes() {
+		counter.recordView(5L);
+		counter.onSchemeChanged(new SchemeChangedEvent(Scheme.builder().id(5L).build(), SchemeChangedEvent.ChangeType.DELETED));
+
+		counter.flush();
+
+		verifyNoInteractions(jdbcTemplate);
+	}
+}
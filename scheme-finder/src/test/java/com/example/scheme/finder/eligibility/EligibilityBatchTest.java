@@ -0,0 +1,128 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.exception.BadRequestException;
+import com.example.scheme.finder.exception.ServiceUnavailableException;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EligibilityBatchTest {
+
+	private final SchemeRepository schemeRepository = mock(SchemeRepository.class);
+	private final EligibilityEngine engine = new EligibilityEngine(schemeRepository);
+	private final EligibilityBatchEvaluator evaluator = new EligibilityBatchEvaluator(engine);
+
+	@BeforeEach
+	void setUp() {
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(List.of(
+						scheme(1L, null, 30),
+						scheme(2L, 18, null),
+						scheme(3L, null, null))));
+		ReflectionTestUtils.setField(evaluator, "maxProfiles", 1_000);
+		ReflectionTestUtils.setField(evaluator, "parallelism", 2);
+		evaluator.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		evaluator.stop();
+	}
+
+	@Test
+	void writesOneLinePerProfileInRequestOrderAcrossChunks() throws IOException {
+		engine.rebuild();
+		List<EligibilityProfile> profiles = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			profiles.add(profile(i % 60));
+		}
+
+		String[] lines = write(evaluator.prepare(profiles));
+
+		assertThat(lines).hasSize(600);
+		for (int i = 0; i < lines.length; i++) {
+			assertThat(lines[i]).isEqualTo(expectedLine(i, i % 60));
+		}
+	}
+
+	@Test
+	void answersFromTheSnapshotTakenWhenAccepted() throws IOException {
+		engine.rebuild();
+		EligibilityBatch batch = evaluator.prepare(List.of(profile(40)));
+
+		engine.onSchemeChanged(new SchemeChangedEvent(scheme(4L, null, null), SchemeChangedEvent.ChangeType.CREATED));
+
+		assertThat(write(batch)).containsExactly("{\"index\":0,\"count\":2,\"schemeIds\":[2,3]}");
+	}
+
+	@Test
+	void rejectsOversizedBatches() {
+		engine.rebuild();
+
+		assertThatThrownBy(() -> evaluator.prepare(Collections.nCopies(1_001, profile(20))))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void refusesBatchesUntilTheRulesAreCompiled() {
+		assertThatThrownBy(() -> evaluator.prepare(List.of(profile(20))))
+				.isInstanceOf(ServiceUnavailableException.class);
+	}
+
+	private static String[] write(EligibilityBatch batch) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		batch.writeTo(out);
+		return out.toString(StandardCharsets.UTF_8).split("\n");
+	}
+
+	private static String expectedLine(int index, int age) {
+		StringJoiner ids = new StringJoiner(",", "[", "]");
+		int count = 0;
+		if (age <= 30) {
+			ids.add("1");
+			count++;
+		}
+		if (age >= 18) {
+			ids.add("2");
+			count++;
+		}
+		ids.add("3");
+		count++;
+		return "{\"index\":" + index + ",\"count\":" + count + ",\"schemeIds\":" + ids + "}";
+	}
+
+	private static EligibilityProfile profile(int age) {
+		return new EligibilityProfile(age, null, null, false, false, false, null, null);
+	}
+
+	private static Scheme scheme(Long id, Integer minAge, Integer maxAge) {
+		return Scheme.builder()
+				.id(id)
+				.minAge(minAge)
+				.maxAge(maxAge)
+				.genderEligibility(Scheme.GenderEligibility.ALL)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.build();
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EligibilityEngineTest {
+
+	private static final double[] INCOMES = {0, 50_000, 100_000, 250_000, 300_000, 500_000, 800_000, 1_000_000, 5_000_000};
+	private static final String[] CATEGORIES = {null, "ALL", "SC,ST", "OBC", "GEN, EWS", "unknown"};
+	private static final String[] STATES = {null, "ALL", "Kerala", "Kerala, Tamil Nadu", " goa "};
+
+	private final Random random = new Random(42);
+	private List<Scheme> schemes;
+	private EligibilityEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		schemes = new ArrayList<>();
+		for (long id = 1; id <= 300; id++) {
+			schemes.add(randomScheme(id));
+		}
+		SchemeRepository schemeRepository = mock(SchemeRepository.class);
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(schemes));
+		engine = new EligibilityEngine(schemeRepository);
+		engine.rebuild();
+	}
+
+	@Test
+	void matchAllAgreesWithTheEligibilityQuery() {
+		for (int i = 0; i < 2_000; i++) {
+			EligibilityProfile profile = randomProfile(false);
+			assertThat(engine.matchAll(profile).orElseThrow())
+					.as("%s", profile)
+					.containsExactly(expectedByQuery(profile));
+		}
+	}
+
+	@Test
+	void matchAllAgreesWithTheScalarRuleForCategoriesAndStates() {
+		for (int i = 0; i < 2_000; i++) {
+			EligibilityProfile profile = randomProfile(true);
+			long[] expected = schemes.stream()
+					.filter(scheme -> SchemeRule.of(scheme).matches(profile))
+					.mapToLong(Scheme::getId)
+					.toArray();
+			assertThat(engine.matchAll(profile).orElseThrow())
+					.as("%s", profile)
+					.containsExactly(expected);
+		}
+	}
+
+	@Test
+	void matchPagesInAscendingIdOrder() {
+		EligibilityProfile profile = new EligibilityProfile(null, null, null, false, false, false, null, null);
+		EligibilityEngine.MatchResult result = engine.match(profile, 10, 5).orElseThrow();
+
+		assertThat(result.getTotalMatches()).isEqualTo(schemes.size());
+		assertThat(result.getSchemeIds()).containsExactly(11L, 12L, 13L, 14L, 15L);
+	}
+
+	@Test
+	void explainAgreesWithTheScalarRulePerCriterion() {
+		for (int i = 0; i < 500; i++) {
+			EligibilityProfile profile = randomProfile(true);
+			EligibilityEngine.ExplainResult result = engine.explain(profile, 0, schemes.size()).orElseThrow();
+
+			assertThat(result.getTotalSchemes()).isEqualTo(schemes.size());
+			assertThat(result.getEligibleSchemes()).isEqualTo(engine.matchAll(profile).orElseThrow().length);
+			int previousFailures = 0;
+			long previousId = 0;
+			for (EligibilityEngine.Explanation explanation : result.getExplanations()) {
+				SchemeRule rule = SchemeRule.of(schemes.get((int) explanation.getSchemeId() - 1));
+				assertThat(explanation.getFailedCriteria()).as("%s / scheme %d", profile, rule.schemeId)
+						.isEqualTo(expectedFailures(rule, profile));
+
+				int failures = Integer.bitCount(explanation.getFailedCriteria());
+				assertThat(failures).isGreaterThanOrEqualTo(previousFailures);
+				if (failures == previousFailures) assertThat(explanation.getSchemeId()).isGreaterThan(previousId);
+				previousFailures = failures;
+				previousId = explanation.getSchemeId();
+			}
+		}
+	}
+
+	@Test
+	void explainPagesThroughTheSameRanking() {
+		EligibilityProfile profile = randomProfile(true);
+		List<EligibilityEngine.Explanation> all = engine.explain(profile, 0, schemes.size()).orElseThrow().getExplanations();
+
+		List<EligibilityEngine.Explanation> page = engine.explain(profile, 40, 20).orElseThrow().getExplanations();
+
+		assertThat(page).extracting(EligibilityEngine.Explanation::getSchemeId)
+				.containsExactlyElementsOf(all.subList(40, 60).stream().map(EligibilityEngine.Explanation::getSchemeId).toList());
+		assertThat(engine.explain(profile, schemes.size(), 20).orElseThrow().getExplanations()).isEmpty();
+	}
+
+	@Test
+	void removesSchemesThatAreNoLongerActive() {
+		Scheme scheme = schemes.get(0);
+		scheme.setStatus(Scheme.SchemeStatus.INACTIVE);
+		engine.onSchemeChanged(new SchemeChangedEvent(scheme, SchemeChangedEvent.ChangeType.UPDATED));
+
+		EligibilityProfile profile = new EligibilityProfile(null, null, null, false, false, false, null, null);
+		assertThat(engine.matchAll(profile).orElseThrow()).doesNotContain(scheme.getId());
+	}
+
+	private static int expectedFailures(SchemeRule rule, EligibilityProfile profile) {
+		Integer age = profile.getAge();
+		int mask = 0;
+		if (age != null && (rule.minAge > age || rule.maxAge < age)) mask |= bit(SchemeDto.EligibilityCriterion.AGE);
+		if (profile.getGender() != null && rule.gender != Scheme.GenderEligibility.ALL
+				&& rule.gender != profile.getGender()) mask |= bit(SchemeDto.EligibilityCriterion.GENDER);
+		if (profile.getAnnualIncome() != null && rule.maxAnnualIncome < profile.getAnnualIncome()) {
+			mask |= bit(SchemeDto.EligibilityCriterion.INCOME);
+		}
+		if (profile.isDisabled() && !rule.allowsDisabled) mask |= bit(SchemeDto.EligibilityCriterion.DISABILITY);
+		if (profile.isStudent() && !rule.allowsStudents) mask |= bit(SchemeDto.EligibilityCriterion.STUDENT);
+		if (profile.isEmployed() && !rule.allowsEmployed) mask |= bit(SchemeDto.EligibilityCriterion.EMPLOYMENT);
+		if (profile.getCategory() != null && (rule.categoryMask & (1 << profile.getCategory().ordinal())) == 0) {
+			mask |= bit(SchemeDto.EligibilityCriterion.CATEGORY);
+		}
+		if (profile.getState() != null && rule.states != null && !rule.states.contains(profile.getState())) {
+			mask |= bit(SchemeDto.EligibilityCriterion.STATE);
+		}
+		return mask;
+	}
+
+	private static int bit(SchemeDto.EligibilityCriterion criterion) {
+		return 1 << criterion.ordinal();
+	}
+
+	// Plain-Java transcription of SchemeRepository.findEligibleSchemes, which has no category or state predicates
+	private long[] expectedByQuery(EligibilityProfile profile) {
+		Integer age = profile.getAge();
+		return schemes.stream()
+				.filter(s -> age == null || s.getMinAge() == null || s.getMinAge() <= age)
+				.filter(s -> age == null || s.getMaxAge() == null || s.getMaxAge() >= age)
+				.filter(s -> profile.getGender() == null
+						|| s.getGenderEligibility() == Scheme.GenderEligibility.ALL
+						|| s.getGenderEligibility() == profile.getGender())
+				.filter(s -> profile.getAnnualIncome() == null || s.getMaxAnnualIncome() == null
+						|| s.getMaxAnnualIncome() >= profile.getAnnualIncome())
+				.filter(s -> !profile.isDisabled() || s.getIsForDisabled() == null || s.getIsForDisabled())
+				.filter(s -> !profile.isStudent() || s.getIsForStudents() == null || s.getIsForStudents())
+				.filter(s -> !profile.isEmployed() || s.getIsForEmployed() == null || s.getIsForEmployed())
+				.mapToLong(Scheme::getId)
+				.toArray();
+	}
+
+	private Scheme randomScheme(long id) {
+		Integer minAge = random.nextInt(3) == 0 ? null : random.nextInt(80);
+		Integer maxAge = random.nextInt(3) == 0 ? null : (minAge != null ? minAge : 0) + random.nextInt(60);
+		Scheme.GenderEligibility[] genders = Scheme.GenderEligibility.values();
+		return Scheme.builder()
+				.id(id)
+				.title("Scheme " + id)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.minAge(minAge)
+				.maxAge(maxAge)
+				.genderEligibility(random.nextInt(6) == 0 ? null : genders[random.nextInt(genders.length)])
+				.maxAnnualIncome(random.nextInt(3) == 0 ? null : INCOMES[random.nextInt(INCOMES.length)])
+				.isForDisabled(randomFlag())
+				.isForStudents(randomFlag())
+				.isForEmployed(randomFlag())
+				.eligibleCategories(CATEGORIES[random.nextInt(CATEGORIES.length)])
+				.eligibleStates(STATES[random.nextInt(STATES.length)])
+				.build();
+	}
+
+	private EligibilityProfile randomProfile(boolean withCategoryAndState) {
+		Scheme.GenderEligibility[] genders = Scheme.GenderEligibility.values();
+		SocialCategory[] categories = SocialCategory.values();
+		String[] states = {"kerala", "tamil nadu", "goa", "punjab"};
+		return new EligibilityProfile(
+				random.nextInt(5) == 0 ? null : random.nextInt(140) - 5,
+				random.nextInt(4) == 0 ? null : genders[random.nextInt(genders.length)],
+				random.nextInt(4) == 0 ? null : INCOMES[random.nextInt(INCOMES.length)] + random.nextInt(2),
+				random.nextBoolean(),
+				random.nextBoolean(),
+				random.nextBoolean(),
+				withCategoryAndState && random.nextBoolean() ? categories[random.nextInt(categories.length)] : null,
+				withCategoryAndState && random.nextBoolean() ? states[random.nextInt(states.length)] : null);
+	}
+
+	private Boolean randomFlag() {
+		int value = random.nextInt(3);
+		return value == 0 ? null : value == 1;
+	}
+}
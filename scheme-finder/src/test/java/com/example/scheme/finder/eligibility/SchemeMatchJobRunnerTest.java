@@ -0,0 +1,132 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemeMatchJobRunnerTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final SchemeMatchJobRunner runner = new SchemeMatchJobRunner(userRepository, jdbcTemplate, new SimpleMeterRegistry());
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(runner, "chunkSize", 2);
+		ReflectionTestUtils.setField(runner, "batchSize", 500);
+	}
+
+	@AfterEach
+	void tearDown() {
+		runner.stop();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void recordsEveryQualifyingUserChunkByChunk() throws InterruptedException {
+		when(userRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+				.thenReturn(new SliceImpl<>(List.of(user(1L, 25), user(2L, 45)), PageRequest.of(0, 2), true));
+		when(userRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(eq(2L), any()))
+				.thenReturn(new SliceImpl<>(List.of(user(3L, 20)), PageRequest.of(0, 2), false));
+
+		runner.onSchemeChanged(new SchemeChangedEvent(scheme(7L, 30), SchemeChangedEvent.ChangeType.CREATED));
+		SchemeDto.SchemeMatchJobStatus status = awaitFinished(7L);
+
+		assertThat(status.getState()).isEqualTo(SchemeDto.SchemeMatchJobState.COMPLETED);
+		assertThat(status.getUsersScanned()).isEqualTo(3);
+		assertThat(status.getMatches()).isEqualTo(2);
+
+		ArgumentCaptor<Collection<Long>> rows = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate, timeout(5_000).times(2))
+				.batchUpdate(anyString(), rows.capture(), eq(500), any(ParameterizedPreparedStatementSetter.class));
+		List<Long> written = new ArrayList<>();
+		rows.getAllValues().forEach(written::addAll);
+		assertThat(written).containsExactly(1L, 3L);
+	}
+
+	@Test
+	void reportsAFailedScan() throws InterruptedException {
+		when(userRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any()))
+				.thenThrow(new IllegalStateException("connection lost"));
+
+		runner.onSchemeChanged(new SchemeChangedEvent(scheme(8L, 30), SchemeChangedEvent.ChangeType.CREATED));
+
+		assertThat(awaitFinished(8L).getState()).isEqualTo(SchemeDto.SchemeMatchJobState.FAILED);
+	}
+
+	@Test
+	void dropsTheMatchesOfADeletedScheme() {
+		runner.onSchemeChanged(new SchemeChangedEvent(scheme(9L, 30), SchemeChangedEvent.ChangeType.DELETED));
+
+		verify(jdbcTemplate, timeout(5_000)).update("DELETE FROM scheme_matches WHERE scheme_id = ?", 9L);
+		assertThat(runner.getStatus(9L)).isEmpty();
+	}
+
+	@Test
+	void ignoresUpdatesAndInactiveSchemes() {
+		Scheme draft = scheme(10L, 30);
+		draft.setStatus(Scheme.SchemeStatus.INACTIVE);
+
+		runner.onSchemeChanged(new SchemeChangedEvent(draft, SchemeChangedEvent.ChangeType.CREATED));
+		runner.onSchemeChanged(new SchemeChangedEvent(scheme(11L, 30), SchemeChangedEvent.ChangeType.UPDATED));
+
+		assertThat(runner.getStatus(10L)).isEmpty();
+		assertThat(runner.getStatus(11L)).isEmpty();
+	}
+
+	private SchemeDto.SchemeMatchJobStatus awaitFinished(Long schemeId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (System.currentTimeMillis() < deadline) {
+			SchemeDto.SchemeMatchJobStatus status = runner.getStatus(schemeId).orElseThrow();
+			if (status.getState() == SchemeDto.SchemeMatchJobState.COMPLETED
+					|| status.getState() == SchemeDto.SchemeMatchJobState.FAILED) {
+				return status;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("Match job for scheme " + schemeId + " did not finish");
+	}
+
+	private static User user(Long id, int age) {
+		return User.builder()
+				.id(id)
+				.age(age)
+				.isActive(true)
+				.build();
+	}
+
+	private static Scheme scheme(Long id, Integer maxAge) {
+		return Scheme.builder()
+				.id(id)
+				.maxAge(maxAge)
+				.genderEligibility(Scheme.GenderEligibility.ALL)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.build();
+	}
+}
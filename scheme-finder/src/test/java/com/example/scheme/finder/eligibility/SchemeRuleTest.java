@@ -0,0 +1,66 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.entity.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemeRuleTest {
+
+	@Test
+	void restrictsToTheListedCategories() {
+		SchemeRule rule = SchemeRule.of(scheme("SC,ST", null));
+
+		assertThat(rule.matches(profile(SocialCategory.ST, null))).isTrue();
+		assertThat(rule.matches(profile(SocialCategory.OBC, null))).isFalse();
+		assertThat(rule.matches(profile(null, null))).isTrue();
+	}
+
+	@Test
+	void restrictsToTheListedStatesIgnoringCaseAndPadding() {
+		SchemeRule rule = SchemeRule.of(scheme(null, " Kerala , TAMIL NADU"));
+
+		assertThat(rule.states).containsExactly("kerala", "tamil nadu");
+		assertThat(rule.matches(profile(null, "tamil nadu"))).isTrue();
+		assertThat(rule.matches(profile(null, "goa"))).isFalse();
+		assertThat(rule.matches(profile(null, null))).isTrue();
+	}
+
+	@Test
+	void treatsAllOrBlankStatesAsUnrestricted() {
+		assertThat(SchemeRule.of(scheme(null, "Kerala, ALL")).states).isNull();
+		assertThat(SchemeRule.of(scheme(null, " , ")).states).isNull();
+		assertThat(SchemeRule.of(scheme(null, null)).matches(profile(null, "goa"))).isTrue();
+	}
+
+	@Test
+	void normalisesUserProfilesTheSameWay() {
+		User user = User.builder()
+				.category("sc")
+				.state("  Kerala ")
+				.gender(User.Gender.OTHER)
+				.build();
+
+		EligibilityProfile profile = EligibilityProfile.of(user);
+
+		assertThat(profile.getCategory()).isEqualTo(SocialCategory.SC);
+		assertThat(profile.getState()).isEqualTo("kerala");
+		assertThat(profile.getGender()).isEqualTo(Scheme.GenderEligibility.ALL);
+		assertThat(SchemeRule.of(scheme("SC", "Kerala")).matches(profile)).isTrue();
+	}
+
+	private static Scheme scheme(String categories, String states) {
+		return Scheme.builder()
+				.id(1L)
+				.genderEligibility(Scheme.GenderEligibility.ALL)
+				.eligibleCategories(categories)
+				.eligibleStates(states)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.build();
+	}
+
+	private static EligibilityProfile profile(SocialCategory category, String state) {
+		return new EligibilityProfile(null, null, null, false, false, false, category, state);
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.scheme.finder.eligibility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SocialCategoryTest {
+
+	@Test
+	void parsesLooselyWrittenCategories() {
+		assertThat(SocialCategory.parse(" obc ")).isEqualTo(SocialCategory.OBC);
+		assertThat(SocialCategory.parse("Gen")).isEqualTo(SocialCategory.GENERAL);
+		assertThat(SocialCategory.parse("minority")).isNull();
+		assertThat(SocialCategory.parse(null)).isNull();
+	}
+
+	@Test
+	void masksOnlyTheListedCategories() {
+		int mask = SocialCategory.maskOf("SC, ST");
+
+		assertThat(mask).isEqualTo((1 << SocialCategory.SC.ordinal()) | (1 << SocialCategory.ST.ordinal()));
+	}
+
+	@Test
+	void treatsBlankAllOrUnrecognisedListsAsUnrestricted() {
+		assertThat(SocialCategory.maskOf(null)).isEqualTo(SocialCategory.ALL_MASK);
+		assertThat(SocialCategory.maskOf("")).isEqualTo(SocialCategory.ALL_MASK);
+		assertThat(SocialCategory.maskOf("SC,all")).isEqualTo(SocialCategory.ALL_MASK);
+		assertThat(SocialCategory.maskOf("minority")).isEqualTo(SocialCategory.ALL_MASK);
+	}
+}
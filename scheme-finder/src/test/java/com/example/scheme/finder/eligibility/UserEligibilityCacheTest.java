@@ -0,0 +1,122 @@
+package com.example.scheme.finder.eligibility;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.event.UserProfileChangedEvent;
+import com.example.scheme.finder.exception.ResourceNotFoundException;
+import com.example.scheme.finder.repository.SchemeRepository;
+import com.example.scheme.finder.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserEligibilityCacheTest {
+
+	private final SchemeRepository schemeRepository = mock(SchemeRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private EligibilityEngine engine;
+	private UserEligibilityCache cache;
+
+	@BeforeEach
+	void setUp() {
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(List.of(scheme(1L, null), scheme(2L, 30), scheme(3L, 60))));
+		engine = new EligibilityEngine(schemeRepository);
+		cache = new UserEligibilityCache(engine, userRepository);
+		ReflectionTestUtils.setField(cache, "maxEntries", 2);
+		cache.init();
+	}
+
+	@Test
+	void isEmptyUntilTheEngineHasCompiled() {
+		assertThat(cache.eligibleSchemeIds(1L)).isEmpty();
+	}
+
+	@Test
+	void loadsEachUserOnce() {
+		engine.rebuild();
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, 40)));
+
+		assertThat(cache.eligibleSchemeIds(1L).orElseThrow()).containsExactly(1L, 3L);
+		assertThat(cache.eligibleSchemeIds(1L).orElseThrow()).containsExactly(1L, 3L);
+		verify(userRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void keepsCachingAfterTheLimitByEvictingOldUsers() {
+		engine.rebuild();
+		for (long id = 1; id <= 3; id++) {
+			when(userRepository.findById(id)).thenReturn(Optional.of(user(id, 40)));
+			cache.eligibleSchemeIds(id);
+		}
+		cache.eligibleSchemeIds(3L);
+
+		verify(userRepository, times(1)).findById(3L);
+		cache.eligibleSchemeIds(1L);
+		verify(userRepository, times(2)).findById(1L);
+	}
+
+	@Test
+	void recomputesOnProfileChangeWithoutALoad() {
+		engine.rebuild();
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, 40)));
+		cache.eligibleSchemeIds(1L);
+
+		cache.onProfileChanged(new UserProfileChangedEvent(user(1L, 20)));
+
+		assertThat(cache.eligibleSchemeIds(1L).orElseThrow()).containsExactly(1L, 2L, 3L);
+		verify(userRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void reevaluatesStoredProfilesAfterASchemeChange() {
+		engine.rebuild();
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, 40)));
+		cache.eligibleSchemeIds(1L);
+
+		engine.onSchemeChanged(new SchemeChangedEvent(scheme(2L, 50), SchemeChangedEvent.ChangeType.UPDATED));
+
+		assertThat(cache.eligibleSchemeIds(1L).orElseThrow()).containsExactly(1L, 2L, 3L);
+		verify(userRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void rejectsUnknownUsers() {
+		engine.rebuild();
+		when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> cache.eligibleSchemeIds(9L)).isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private static Scheme scheme(Long id, Integer maxAge) {
+		return Scheme.builder()
+				.id(id)
+				.title("Scheme " + id)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.genderEligibility(Scheme.GenderEligibility.ALL)
+				.maxAge(maxAge)
+				.build();
+	}
+
+	private static User user(Long id, Integer age) {
+		return User.builder()
+				.id(id)
+				.age(age)
+				.build();
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.scheme.finder.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyTermMatcherTest {
+
+	private final FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+
+	@Test
+	void boundsTheEditDistance() {
+		assertThat(FuzzyTermMatcher.boundedDistance("kissan", "kisan", 2)).isEqualTo(1);
+		assertThat(FuzzyTermMatcher.boundedDistance("pensoin", "pension", 2)).isEqualTo(2);
+		assertThat(FuzzyTermMatcher.boundedDistance("abc", "xyz", 1)).isEqualTo(2);
+	}
+
+	@Test
+	void allowsMoreEditsForLongerTerms() {
+		assertThat(FuzzyTermMatcher.maxEditsFor("kisan")).isEqualTo(1);
+		assertThat(FuzzyTermMatcher.maxEditsFor("pension")).isEqualTo(2);
+	}
+
+	@Test
+	void ranksClosestThenMostReferencedTerms() {
+		matcher.add("kisan");
+		matcher.add("kisan");
+		matcher.add("kisaan");
+		matcher.add("pension");
+
+		assertThat(terms(matcher.match("kissan", 2, 8, Long.MAX_VALUE))).containsExactly("kisan", "kisaan");
+		assertThat(terms(matcher.match("kissan", 2, 1, Long.MAX_VALUE))).containsExactly("kisan");
+	}
+
+	@Test
+	void neverReturnsTheQueryTermItself() {
+		matcher.add("kisan");
+
+		assertThat(matcher.match("kisan", 1, 8, Long.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	void keepsATermUntilItsLastReferenceIsRemoved() {
+		matcher.add("kisan");
+		matcher.add("kisan");
+
+		matcher.remove("kisan");
+		assertThat(terms(matcher.match("kisaan", 2, 8, Long.MAX_VALUE))).containsExactly("kisan");
+
+		matcher.remove("kisan");
+		assertThat(matcher.match("kisaan", 2, 8, Long.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	void stopsOnceTheDeadlinePasses() {
+		matcher.add("kisan");
+
+		assertThat(matcher.match("kissan", 2, 8, System.nanoTime() - 1)).isEmpty();
+	}
+
+	private static List<String> terms(List<FuzzyTermMatcher.Match> matches) {
+		return matches.stream().map(match -> match.term).toList();
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.scheme.finder.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrdinalBitSetTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	void growsOnSetAndIgnoresOutOfRangeClears() {
+		OrdinalBitSet bits = new OrdinalBitSet(1);
+
+		bits.set(1_000);
+		bits.clear(50_000);
+
+		assertThat(bits.get(1_000)).isTrue();
+		assertThat(bits.get(50_000)).isFalse();
+		assertThat(bits.cardinality()).isEqualTo(1);
+	}
+
+	@Test
+	void matchesJavaUtilBitSet() {
+		for (int round = 0; round < 200; round++) {
+			BitSet expectedA = randomBits(random.nextInt(300));
+			BitSet expectedB = randomBits(random.nextInt(300));
+			OrdinalBitSet a = copyOf(expectedA);
+			OrdinalBitSet b = copyOf(expectedB);
+
+			BitSet intersection = (BitSet) expectedA.clone();
+			intersection.and(expectedB);
+			assertThat(a.intersectionCount(b)).isEqualTo(intersection.cardinality());
+			assertThat(b.intersectionCount(a)).isEqualTo(intersection.cardinality());
+
+			for (int from = 0; from < 320; from++) {
+				assertThat(a.nextSetBit(from)).isEqualTo(expectedA.nextSetBit(from));
+				assertThat(a.previousSetBit(from)).isEqualTo(expectedA.previousSetBit(from));
+			}
+
+			OrdinalBitSet and = a.copy();
+			and.and(b);
+			assertSame(and, intersection);
+
+			BitSet union = (BitSet) expectedA.clone();
+			union.or(expectedB);
+			OrdinalBitSet or = a.copy();
+			or.or(b);
+			assertSame(or, union);
+
+			assertSame(a, expectedA);
+		}
+	}
+
+	@Test
+	void copiesAreIndependent() {
+		OrdinalBitSet original = new OrdinalBitSet();
+		original.set(3);
+		OrdinalBitSet copy = original.copy();
+
+		copy.clear(3);
+		copy.set(4);
+
+		assertThat(original.get(3)).isTrue();
+		assertThat(original.get(4)).isFalse();
+		assertThat(copy.isEmpty()).isFalse();
+	}
+
+	private BitSet randomBits(int size) {
+		BitSet bits = new BitSet();
+		for (int i = 0; i < size; i++) {
+			if (random.nextInt(4) == 0) bits.set(i);
+		}
+		return bits;
+	}
+
+	private static OrdinalBitSet copyOf(BitSet bits) {
+		OrdinalBitSet copy = new OrdinalBitSet();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			copy.set(i);
+		}
+		return copy;
+	}
+
+	private static void assertSame(OrdinalBitSet actual, BitSet expected) {
+		assertThat(actual.cardinality()).isEqualTo(expected.cardinality());
+		assertThat(actual.isEmpty()).isEqualTo(expected.isEmpty());
+		for (int i = 0; i < 320; i++) {
+			assertThat(actual.get(i)).isEqualTo(expected.get(i));
+		}
+	}
+}
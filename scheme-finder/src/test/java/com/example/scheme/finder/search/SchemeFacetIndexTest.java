@@ -0,0 +1,84 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Category;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchemeFacetIndexTest {
+
+	private SchemeFacetIndex index;
+
+	@BeforeEach
+	void setUp() {
+		SchemeRepository schemeRepository = mock(SchemeRepository.class);
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(List.of(
+						scheme(1L, 1L, Scheme.SchemeLevel.STATE, "Kerala"),
+						scheme(2L, 1L, Scheme.SchemeLevel.STATE, " kerala "),
+						scheme(3L, 2L, Scheme.SchemeLevel.CENTRAL, null))));
+		index = new SchemeFacetIndex(schemeRepository);
+		index.rebuild();
+	}
+
+	@Test
+	void countsEveryFacetByDescendingCountThenLabel() {
+		Map<String, Map<String, Long>> facets = index.countAll();
+
+		assertThat(facets.get("categoryId")).containsExactly(entry("1", 2L), entry("2", 1L));
+		assertThat(facets.get("stateName")).containsExactly(entry("Kerala", 2L));
+		assertThat(facets.get("schemeLevel")).containsExactly(entry("STATE", 2L), entry("CENTRAL", 1L));
+	}
+
+	@Test
+	void looksUpValuesIgnoringCaseAndPadding() {
+		assertThat(index.idsFor(FacetField.STATE, "KERALA ")).containsExactly(1L, 2L);
+		assertThat(index.cardinality(FacetField.STATE, "kerala")).isEqualTo(2);
+		assertThat(index.idsFor(FacetField.STATE, "Goa")).isEmpty();
+		assertThat(index.allIds()).containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	void countsWithinAFacetValueOrAnIdList() {
+		assertThat(index.countWithin(FacetField.LEVEL, "CENTRAL").get("categoryId")).containsExactly(entry("2", 1L));
+		assertThat(index.countWithin(FacetField.LEVEL, "CENTRAL").get("stateName")).isEmpty();
+		assertThat(index.countWithin(new long[]{2L, 3L, 99L}).get("categoryId"))
+				.containsExactly(entry("1", 1L), entry("2", 1L));
+	}
+
+	@Test
+	void movesAndDropsSchemesOnChange() {
+		index.onSchemeChanged(new SchemeChangedEvent(
+				scheme(2L, 1L, Scheme.SchemeLevel.STATE, "Goa"), SchemeChangedEvent.ChangeType.UPDATED));
+		index.onSchemeChanged(new SchemeChangedEvent(
+				scheme(1L, 1L, Scheme.SchemeLevel.STATE, "Kerala"), SchemeChangedEvent.ChangeType.DELETED));
+
+		assertThat(index.idsFor(FacetField.STATE, "Kerala")).isEmpty();
+		assertThat(index.countAll().get("stateName")).containsExactly(entry("Goa", 1L));
+		assertThat(index.allIds()).containsExactly(2L, 3L);
+	}
+
+	private static Scheme scheme(Long id, Long categoryId, Scheme.SchemeLevel level, String stateName) {
+		return Scheme.builder()
+				.id(id)
+				.category(Category.builder().id(categoryId).build())
+				.schemeLevel(level)
+				.stateName(stateName)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.build();
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchemeQueryPlannerTest {
+
+	private final SchemeFacetIndex facetIndex = mock(SchemeFacetIndex.class);
+	private final SchemeSearchIndex searchIndex = mock(SchemeSearchIndex.class);
+	private final SchemeQueryPlanner planner = new SchemeQueryPlanner(facetIndex, searchIndex);
+
+	@BeforeEach
+	void setUp() {
+		when(facetIndex.isReady()).thenReturn(true);
+		when(searchIndex.isReady()).thenReturn(true);
+	}
+
+	@Test
+	void intersectsIndexedPredicates() {
+		stubFacet(FacetField.STATE, "Kerala", new long[]{1, 2, 3, 5});
+		stubKeyword("kisan", new long[]{2, 5, 8});
+
+		SchemeQueryPlanner.QueryPlan plan = planner.plan(filter("Kerala", "kisan", null));
+
+		assertThat(plan.getPath()).isEqualTo(SchemeDto.FilterPath.INDEX);
+		assertThat(plan.getSchemeIds()).containsExactly(2, 5);
+	}
+
+	@Test
+	void bindsSmallCandidateSetsAsOneIdList() {
+		stubKeyword("kisan", new long[]{2, 5, 8});
+
+		SchemeQueryPlanner.QueryPlan plan = planner.plan(filter(null, "kisan", LocalDate.of(2020, 1, 1)));
+
+		assertThat(plan.getPath()).isEqualTo(SchemeDto.FilterPath.INDEX_WITH_SPECIFICATION);
+		assertThat(plan.getSchemeIds()).isNull();
+	}
+
+	@Test
+	void leavesLargeKeywordCandidateSetsToBeCheckedInChunks() {
+		stubKeyword("scheme", LongStream.rangeClosed(1, 5_000).toArray());
+
+		SchemeQueryPlanner.QueryPlan plan = planner.plan(filter(null, "scheme", LocalDate.of(2020, 1, 1)));
+
+		assertThat(plan.getPath()).isEqualTo(SchemeDto.FilterPath.INDEX_WITH_SPECIFICATION);
+		assertThat(plan.getSchemeIds()).hasSize(5_000);
+		assertThat(plan.getSteps()).contains("5000 candidates checked in chunks of 1000 ids");
+	}
+
+	@Test
+	void fallsBackToTheSpecificationForLargeFacetCandidateSets() {
+		stubFacet(FacetField.STATE, "Kerala", LongStream.rangeClosed(1, 5_000).toArray());
+
+		SchemeQueryPlanner.QueryPlan plan = planner.plan(filter("Kerala", null, LocalDate.of(2020, 1, 1)));
+
+		assertThat(plan.getPath()).isEqualTo(SchemeDto.FilterPath.SPECIFICATION);
+	}
+
+	@Test
+	void neverFallsBackToASubstringMatchForKeywords() {
+		when(searchIndex.isReady()).thenReturn(false);
+
+		assertThatThrownBy(() -> planner.plan(filter(null, "kisan", null)))
+				.isInstanceOf(ServiceUnavailableException.class);
+	}
+
+	@Test
+	void intersectsSortedIdArrays() {
+		assertThat(SchemeQueryPlanner.intersect(new long[]{1, 3, 5, 7}, new long[]{2, 3, 4, 7, 9})).containsExactly(3, 7);
+		assertThat(SchemeQueryPlanner.intersect(new long[]{}, new long[]{1})).isEmpty();
+	}
+
+	private void stubFacet(FacetField field, String value, long[] ids) {
+		when(facetIndex.cardinality(field, value)).thenReturn(ids.length);
+		when(facetIndex.idsFor(field, value)).thenReturn(ids);
+	}
+
+	private void stubKeyword(String keyword, long[] ids) {
+		when(searchIndex.estimateMatches(keyword)).thenReturn(ids.length);
+		when(searchIndex.findMatchingIds(eq(keyword), anyBoolean())).thenReturn(Optional.of(ids));
+	}
+
+	private static SchemeDto.SchemeFilterRequest filter(String state, String keyword, LocalDate launchedAfter) {
+		SchemeDto.SchemeFilterRequest filter = new SchemeDto.SchemeFilterRequest();
+		filter.setState(state);
+		filter.setKeyword(keyword);
+		filter.setLaunchedAfter(launchedAfter);
+		return filter;
+	}
+}
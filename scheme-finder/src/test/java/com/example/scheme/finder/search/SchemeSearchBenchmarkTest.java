@@ -0,0 +1,158 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Latency of the in-memory search over a synthetic catalogue. Opt-in, as timings depend on the machine:
+// mvn test -Dtest=SchemeSearchBenchmarkTest -Dbenchmark=true
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SchemeSearchBenchmarkTest {
+
+	private static final String[] TOPICS = {
+			"kisan", "farmer", "scholarship", "student", "pension", "housing", "loan", "health",
+			"insurance", "women", "disability", "skill", "employment", "startup", "education", "rural"
+	};
+	private static final String[] QUERIES = {
+			"kisan", "scholarship student", "pension", "housing loan", "health insurance", "women skill",
+			"rural employment", "schol", "startup loan", "disability pension", "education", "farmer insurance"
+	};
+	private static final int WARMUP_ROUNDS = 2_000;
+	private static final int MEASURED_ROUNDS = 10_000;
+
+	@ParameterizedTest
+	@ValueSource(ints = {10_000, 100_000})
+	void searchLatency(int schemes) {
+		SchemeSearchIndex index = indexOf(schemes);
+
+		long[] nanos = measure(round -> index.search(QUERIES[round % QUERIES.length], false, 0, 10));
+
+		report("search", schemes, nanos);
+	}
+
+	// Ranked top page against the unranked match of the same query, round by round; the difference
+	// is what BM25F scoring and top-k selection add. The budget is 2 ms at p99.
+	@Test
+	void rankingOverhead() {
+		SchemeSearchIndex index = indexOf(50_000);
+
+		long[] ranked = measure(round -> index.search(QUERIES[round % QUERIES.length], false, 0, 10));
+		long[] unranked = measure(round -> index.findMatchingIds(QUERIES[round % QUERIES.length], false));
+		long[] overhead = new long[ranked.length];
+		for (int i = 0; i < ranked.length; i++) overhead[i] = Math.max(0L, ranked[i] - unranked[i]);
+
+		report("ranked search", 50_000, ranked);
+		report("unranked match", 50_000, unranked);
+		report("ranking overhead", 50_000, overhead);
+		assertThat(percentileMillis(overhead, 99)).isLessThan(2.0);
+	}
+
+	static SchemeSearchIndex indexOf(int schemes) {
+		List<Scheme> catalogue = catalogue(schemes);
+		SchemeRepository schemeRepository = mock(SchemeRepository.class);
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenAnswer(invocation -> {
+					long lastId = invocation.getArgument(1);
+					Pageable pageable = invocation.getArgument(2);
+					int from = (int) lastId;
+					int to = Math.min(catalogue.size(), from + pageable.getPageSize());
+					return new SliceImpl<>(catalogue.subList(from, to), pageable, to < catalogue.size());
+				});
+		SchemeSearchIndex index = new SchemeSearchIndex(schemeRepository);
+		index.rebuild();
+		return index;
+	}
+
+	static long[] measure(Round round) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) round.run(i);
+		long[] nanos = new long[MEASURED_ROUNDS];
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long start = System.nanoTime();
+			round.run(i);
+			nanos[i] = System.nanoTime() - start;
+		}
+		return nanos;
+	}
+
+	static double percentileMillis(long[] nanos, double percentile) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1] / 1_000_000.0;
+	}
+
+	static void report(String what, int schemes, long[] nanos) {
+		System.out.printf("%s over %,d schemes: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", what, schemes,
+				percentileMillis(nanos, 50), percentileMillis(nanos, 99), percentileMillis(nanos, 100));
+	}
+
+	// Ids run 1..size so a keyset page starting after id n begins at list index n
+	private static List<Scheme> catalogue(int size) {
+		Random random = new Random(42);
+		String[] vocabulary = new String[5_000];
+		for (int i = 0; i < vocabulary.length; i++) vocabulary[i] = word(random);
+
+		List<Scheme> catalogue = new ArrayList<>(size);
+		for (int id = 1; id <= size; id++) {
+			String topic = TOPICS[random.nextInt(TOPICS.length)];
+			catalogue.add(Scheme.builder()
+					.id((long) id)
+					.title(capitalise(topic) + " " + text(random, vocabulary, 2 + random.nextInt(5)))
+					.tags(topic + "," + TOPICS[random.nextInt(TOPICS.length)])
+					.shortDescription(text(random, vocabulary, 10 + random.nextInt(10)) + " " + topic)
+					.fullDescription(text(random, vocabulary, 40 + random.nextInt(40)))
+					.ministryName("Ministry of " + capitalise(vocabulary[random.nextInt(50)]))
+					.benefits(text(random, vocabulary, 5 + random.nextInt(10)))
+					.status(Scheme.SchemeStatus.ACTIVE)
+					.build());
+		}
+		return catalogue;
+	}
+
+	// Skewed towards the start of the vocabulary, like real text
+	private static String text(Random random, String[] vocabulary, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			double skew = random.nextDouble();
+			if (i > 0) text.append(' ');
+			text.append(vocabulary[(int) (vocabulary.length * skew * skew * skew)]);
+		}
+		return text.toString();
+	}
+
+	private static String word(Random random) {
+		StringBuilder word = new StringBuilder();
+		int syllables = 2 + random.nextInt(3);
+		for (int i = 0; i < syllables; i++) {
+			word.append("bcdfghjklmnprstvy".charAt(random.nextInt(17))).append("aeiou".charAt(random.nextInt(5)));
+		}
+		return word.toString();
+	}
+
+	private static String capitalise(String word) {
+		return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+	}
+
+	@FunctionalInterface
+	interface Round {
+		void run(int round);
+	}
+}
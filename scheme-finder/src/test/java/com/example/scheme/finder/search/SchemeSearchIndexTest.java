@@ -0,0 +1,127 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeChangedEvent;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchemeSearchIndexTest {
+
+	private final SchemeRepository schemeRepository = mock(SchemeRepository.class);
+	private final SchemeSearchIndex index = new SchemeSearchIndex(schemeRepository);
+
+	@BeforeEach
+	void setUp() {
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(List.of(
+						scheme(1L, "Kisan Credit Card", "Short term loans for farmers"),
+						scheme(2L, "Crop Insurance", "Cover for kisan families against crop loss"))));
+		index.rebuild();
+	}
+
+	@Test
+	void ranksTitleMatchesAboveDescriptionMatches() {
+		assertThat(index.search("kisan", false, 0, 10).orElseThrow().getSchemeIds()).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void favoursShorterFieldsForTheSameMatch() {
+		rebuildWith(
+				scheme(10L, "Kisan Yojana", null),
+				scheme(11L, "Kisan Yojana for Rural Farmers Welfare and Income Support", null));
+
+		assertThat(index.search("kisan yojana", false, 0, 10).orElseThrow().getSchemeIds()).containsExactly(10L, 11L);
+	}
+
+	@Test
+	void ranksExactTermsAbovePrefixExpansions() {
+		rebuildWith(
+				scheme(20L, "Kisan Portal", null),
+				scheme(21L, "Kisanmitra Portal", null));
+
+		assertThat(index.search("kisan", false, 0, 10).orElseThrow().getSchemeIds()).containsExactly(20L, 21L);
+	}
+
+	@Test
+	void breaksTiesByNewestScheme() {
+		rebuildWith(
+				scheme(30L, "Kisan Card", null),
+				scheme(31L, "Kisan Card", null));
+
+		assertThat(index.search("kisan", false, 0, 10).orElseThrow().getSchemeIds()).containsExactly(31L, 30L);
+		assertThat(index.search("kisan", false, 1, 10).orElseThrow().getSchemeIds()).containsExactly(30L);
+	}
+
+	@Test
+	void requiresEveryTokenAndExpandsPrefixes() {
+		assertThat(index.search("kisan card", false, 0, 10).orElseThrow().getSchemeIds()).containsExactly(1L);
+		assertThat(index.search("kis", false, 0, 10).orElseThrow().getTotalHits()).isEqualTo(2);
+	}
+
+	@Test
+	void ignoresMisspellingsOutsideFuzzyMode() {
+		assertThat(index.search("kissan", false, 0, 10).orElseThrow().getTotalHits()).isZero();
+	}
+
+	@Test
+	void matchesNothingForStopWordsAndSingleLetters() {
+		SchemeSearchIndex.SearchResult result = index.search("the a of x", false, 0, 10).orElseThrow();
+
+		assertThat(result.getSchemeIds()).isEmpty();
+		assertThat(result.getTotalHits()).isZero();
+		assertThat(index.findMatchingIds("the a of x", false).orElseThrow()).isEmpty();
+		assertThat(index.estimateMatches("the a of x")).isZero();
+	}
+
+	@Test
+	void pagesWithoutOverflowingTheWindow() {
+		assertThat(index.search("kisan", false, 1, Integer.MAX_VALUE).orElseThrow().getSchemeIds()).containsExactly(2L);
+		assertThat(index.search("kisan", false, Integer.MAX_VALUE, 10).orElseThrow().getSchemeIds()).isEmpty();
+	}
+
+	@Test
+	void keepsServingAndReplaysChangesWhileRebuilding() {
+		Scheme added = scheme(3L, "Kisan Vikas Patra", "Savings certificate");
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenAnswer(invocation -> {
+					long hits = CompletableFuture.supplyAsync(() -> index.search("kisan", false, 0, 10).orElseThrow())
+							.get(5, TimeUnit.SECONDS)
+							.getTotalHits();
+					assertThat(hits).isEqualTo(2);
+					index.onSchemeChanged(new SchemeChangedEvent(added, SchemeChangedEvent.ChangeType.CREATED));
+					return new SliceImpl<>(List.of(scheme(1L, "Kisan Credit Card", "Short term loans for farmers")));
+				});
+
+		index.rebuild();
+
+		assertThat(index.findMatchingIds("kisan", false).orElseThrow()).containsExactly(1L, 3L);
+	}
+
+	private void rebuildWith(Scheme... schemes) {
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(List.of(schemes)));
+		index.rebuild();
+	}
+
+	private static Scheme scheme(Long id, String title, String description) {
+		return Scheme.builder()
+				.id(id)
+				.title(title)
+				.shortDescription(description)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.build();
+	}
+}
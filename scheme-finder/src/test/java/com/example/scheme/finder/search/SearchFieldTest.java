@@ -0,0 +1,35 @@
+package com.example.scheme.finder.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchFieldTest {
+
+	@Test
+	void packsEachFieldFrequencyIndependently() {
+		int packed = SearchField.TITLE.increment(0);
+		packed = SearchField.BENEFITS.increment(packed);
+		packed = SearchField.BENEFITS.increment(packed);
+
+		assertThat(SearchField.TITLE.frequency(packed)).isEqualTo(1);
+		assertThat(SearchField.BENEFITS.frequency(packed)).isEqualTo(2);
+		assertThat(SearchField.TAGS.frequency(packed)).isZero();
+	}
+
+	@Test
+	void saturatesInsteadOfSpillingIntoTheNextField() {
+		int packed = 0;
+		for (int i = 0; i < SearchField.MAX_FREQ + 5; i++) {
+			packed = SearchField.TITLE.increment(packed);
+		}
+
+		assertThat(SearchField.TITLE.frequency(packed)).isEqualTo(SearchField.MAX_FREQ);
+		assertThat(SearchField.TAGS.frequency(packed)).isZero();
+	}
+
+	@Test
+	void fitsEveryFieldInOneInt() {
+		assertThat(SearchField.values().length * SearchField.FREQ_BITS).isLessThanOrEqualTo(Integer.SIZE);
+	}
+}
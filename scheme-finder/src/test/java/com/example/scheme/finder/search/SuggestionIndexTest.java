@@ -0,0 +1,77 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.event.SchemeViewsFlushedEvent;
+import com.example.scheme.finder.repository.CategoryRepository;
+import com.example.scheme.finder.repository.SchemeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTest {
+
+	private SuggestionIndex index;
+
+	@BeforeEach
+	void setUp() {
+		SchemeRepository schemeRepository = mock(SchemeRepository.class);
+		CategoryRepository categoryRepository = mock(CategoryRepository.class);
+		when(categoryRepository.findByIsActiveTrueOrderByDisplayOrderAsc()).thenReturn(List.of());
+		when(schemeRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Scheme.SchemeStatus.ACTIVE), anyLong(), any()))
+				.thenReturn(new SliceImpl<>(List.of(
+						scheme(1L, "PM Kisan Samman Nidhi", 100L),
+						scheme(2L, "Kisan Credit Card", 50L),
+						scheme(3L, "Kisan Vikas Patra", 10L))));
+		index = new SuggestionIndex(schemeRepository, categoryRepository);
+		index.rebuild();
+	}
+
+	@Test
+	void completesFromTheStartOfAnyWordByPopularity() {
+		assertThat(index.suggest("kis", 10))
+				.extracting(SchemeDto.Suggestion::getSchemeId)
+				.containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	void clampsTheLimit() {
+		assertThat(index.suggest("kis", -1)).hasSize(1);
+		assertThat(index.suggest("kis", 0)).hasSize(1);
+		assertThat(index.suggest("kis", 2)).hasSize(2);
+		assertThat(index.suggest("kis", 1_000)).hasSize(3);
+	}
+
+	@Test
+	void reranksOnFlushedViews() {
+		index.onViewsFlushed(new SchemeViewsFlushedEvent(Map.of(3L, 200L, 99L, 5L)));
+
+		assertThat(index.suggest("kis", 10))
+				.extracting(SchemeDto.Suggestion::getSchemeId)
+				.containsExactly(3L, 1L, 2L);
+	}
+
+	@Test
+	void returnsNothingForABlankQuery() {
+		assertThat(index.suggest("  ", 10)).isEmpty();
+	}
+
+	private static Scheme scheme(Long id, String title, Long views) {
+		return Scheme.builder()
+				.id(id)
+				.title(title)
+				.status(Scheme.SchemeStatus.ACTIVE)
+				.viewCount(views)
+				.build();
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.scheme.finder.search;
+
+import com.example.scheme.finder.dto.SchemeDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+	private final SuggestionTrie trie = new SuggestionTrie(2);
+
+	@Test
+	void completesAcrossSplitEdgesByWeightThenText() {
+		insert("kisan credit card", 5);
+		insert("kisan vikas patra", 9);
+		insert("kisan samman nidhi", 5);
+
+		assertThat(texts(trie.complete("kis", 10))).containsExactly("kisan vikas patra", "kisan credit card");
+		assertThat(texts(trie.complete("kisan s", 10))).containsExactly("kisan samman nidhi");
+		assertThat(texts(trie.complete("kisan vikas patra", 10))).containsExactly("kisan vikas patra");
+		assertThat(trie.complete("kisan x", 10)).isEmpty();
+	}
+
+	@Test
+	void honoursTheRequestedLimit() {
+		insert("pension", 1);
+		insert("pension for widows", 2);
+
+		assertThat(trie.complete("pen", 1)).hasSize(1);
+	}
+
+	@Test
+	void prunesRemovedPhrasesFromEveryAncestor() {
+		SuggestionTrie.Phrase card = insert("kisan credit card", 5);
+		insert("kisan vikas patra", 1);
+
+		trie.remove("kisan credit card", card);
+
+		assertThat(texts(trie.complete("k", 10))).containsExactly("kisan vikas patra");
+		assertThat(trie.complete("kisan c", 10)).isEmpty();
+	}
+
+	@Test
+	void reranksAfterAWeightChange() {
+		SuggestionTrie.Phrase card = insert("kisan credit card", 1);
+		insert("kisan vikas patra", 5);
+
+		card.weight = 10;
+		trie.refresh("kisan credit card");
+
+		assertThat(texts(trie.complete("kisan", 10))).containsExactly("kisan credit card", "kisan vikas patra");
+	}
+
+	@Test
+	void defersRankingUntilRebuildTopOnBulkInsert() {
+		trie.insert("agriculture", phrase("agriculture", 1), false);
+		assertThat(trie.complete("agri", 10)).isEmpty();
+
+		trie.rebuildTop();
+
+		assertThat(texts(trie.complete("agri", 10))).containsExactly("agriculture");
+	}
+
+	private SuggestionTrie.Phrase insert(String text, long weight) {
+		SuggestionTrie.Phrase phrase = phrase(text, weight);
+		trie.insert(text, phrase, true);
+		return phrase;
+	}
+
+	private static SuggestionTrie.Phrase phrase(String text, long weight) {
+		return new SuggestionTrie.Phrase(text, SchemeDto.SuggestionType.SCHEME, 1L, null, weight);
+	}
+
+	private static List<String> texts(List<SuggestionTrie.Phrase> phrases) {
+		return phrases.stream().map(phrase -> phrase.text).toList();
+	}
+}
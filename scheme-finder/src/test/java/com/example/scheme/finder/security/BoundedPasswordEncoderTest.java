@@ -0,0 +1,103 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final BoundedPasswordEncoder encoder =
+			new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 7, meterRegistry);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.shutdown();
+	}
+
+	@Test
+	void hashesOnThePoolAndDelegatesTheRest() {
+		release.countDown();
+
+		assertThat(encoder.encode("secret")).isEqualTo("hashed:secret@password-hash-1");
+		assertThat(encoder.matches("secret", "hashed:secret")).isTrue();
+		assertThat(encoder.upgradeEncoding("hashed:secret")).isTrue();
+		assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void turnsCallersAwayOncePoolAndQueueAreFull() throws Exception {
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("second", "hashed:second"));
+		awaitQueueDepth(1);
+
+		assertThatThrownBy(() -> encoder.encode("third"))
+				.isInstanceOfSatisfying(TooManyRequestsException.class,
+						ex -> assertThat(ex.getRetryAfterSeconds()).isEqualTo(7));
+		assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("hashed:first");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void rethrowsDelegateFailuresUnwrapped() {
+		release.countDown();
+
+		assertThatThrownBy(() -> encoder.matches("secret", null)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void awaitQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("password.hashing.queue.depth").gauge().value() < depth) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	// Records the worker thread in the hash and holds the first call until released
+	private class BlockingEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			hold();
+			return "hashed:" + rawPassword + "@" + Thread.currentThread().getName();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			hold();
+			if (encodedPassword == null) throw new IllegalArgumentException("Encoded password is required");
+			return encodedPassword.equals("hashed:" + rawPassword);
+		}
+
+		@Override
+		public boolean upgradeEncoding(String encodedPassword) {
+			return true;
+		}
+
+		private void hold() {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+	private static final String SECRET = "a-test-signing-secret-of-at-least-32-bytes";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void carriesTheUserClaimsThroughVerification() {
+		JwtUtil jwtUtil = newJwtUtil(SECRET, 60_000L, 10);
+		UserPrincipal principal = new UserPrincipal(user(1L, "asha@example.com", 4L));
+
+		VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(principal));
+
+		assertThat(token.getSubject()).isEqualTo("asha@example.com");
+		assertThat(token.getUserId()).isEqualTo(1L);
+		assertThat(token.getRole()).isEqualTo(User.Role.USER);
+		assertThat(token.isActive()).isTrue();
+		assertThat(token.getTokenEpoch()).isEqualTo(4L);
+		assertThat(token.hasUserClaims()).isTrue();
+		assertThat(jwtUtil.isTokenValid(token, principal)).isTrue();
+		assertThat(jwtUtil.isTokenValid(token, new UserPrincipal(user(2L, "ravi@example.com", 0L)))).isFalse();
+	}
+
+	@Test
+	void leavesOlderTokensWithoutUserClaims() {
+		JwtUtil jwtUtil = newJwtUtil(SECRET, 60_000L, 10);
+		UserDetails principal = new UserPrincipal(user(1L, "asha@example.com", 0L));
+
+		VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(principal));
+
+		assertThat(token.getSubject()).isEqualTo("asha@example.com");
+		assertThat(token.hasUserClaims()).isFalse();
+	}
+
+	@Test
+	void parsesEachTokenOnceAndServesRepeatsFromTheCache() {
+		JwtUtil jwtUtil = newJwtUtil(SECRET, 60_000L, 10);
+		String token = jwtUtil.generateToken(new UserPrincipal(user(1L, "asha@example.com", 0L)));
+
+		VerifiedToken first = jwtUtil.verify(token);
+		VerifiedToken second = jwtUtil.verify(token);
+
+		assertThat(second).isSameAs(first);
+		assertThat(cacheCount("miss")).isEqualTo(1);
+		assertThat(cacheCount("hit")).isEqualTo(1);
+		assertThat(meterRegistry.get("jwt.verification.duration").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsTokensSignedWithAnotherKey() {
+		String forged = newJwtUtil("another-signing-secret-of-at-least-32-bytes", 60_000L, 10)
+				.generateToken(new UserPrincipal(user(1L, "asha@example.com", 0L)));
+
+		assertThatThrownBy(() -> newJwtUtil(SECRET, 60_000L, 10).verify(forged)).isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void neverCachesExpiredTokens() {
+		JwtUtil jwtUtil = newJwtUtil(SECRET, -1_000L, 10);
+		String expired = jwtUtil.generateToken(new UserPrincipal(user(1L, "asha@example.com", 0L)));
+
+		assertThatThrownBy(() -> jwtUtil.verify(expired)).isInstanceOf(ExpiredJwtException.class);
+		assertThatThrownBy(() -> jwtUtil.verify(expired)).isInstanceOf(ExpiredJwtException.class);
+		assertThat(cacheCount("miss")).isEqualTo(2);
+		assertThat(cacheSize()).isZero();
+	}
+
+	@Test
+	void stopsCachingAtTheBoundButKeepsVerifying() {
+		JwtUtil jwtUtil = newJwtUtil(SECRET, 60_000L, 1);
+		String first = jwtUtil.generateToken(new UserPrincipal(user(1L, "asha@example.com", 0L)));
+		String second = jwtUtil.generateToken(new UserPrincipal(user(2L, "ravi@example.com", 0L)));
+
+		jwtUtil.verify(first);
+		assertThat(jwtUtil.verify(second).getUserId()).isEqualTo(2L);
+		jwtUtil.verify(second);
+
+		assertThat(cacheSize()).isEqualTo(1);
+		assertThat(cacheCount("miss")).isEqualTo(3);
+	}
+
+	private JwtUtil newJwtUtil(String secret, long expiration, int maxCachedTokens) {
+		JwtUtil created = new JwtUtil(meterRegistry);
+		ReflectionTestUtils.setField(created, "jwtSecret", secret);
+		ReflectionTestUtils.setField(created, "jwtExpiration", expiration);
+		ReflectionTestUtils.setField(created, "maxCachedTokens", maxCachedTokens);
+		created.init();
+		return created;
+	}
+
+	private double cacheCount(String result) {
+		return meterRegistry.get("jwt.verified.cache").tag("result", result).counter().count();
+	}
+
+	private double cacheSize() {
+		return meterRegistry.get("jwt.verified.cache.size").gauge().value();
+	}
+
+	private static User user(Long id, String email, Long tokenEpoch) {
+		return User.builder()
+				.id(id)
+				.email(email)
+				.role(User.Role.USER)
+				.isActive(true)
+				.tokenEpoch(tokenEpoch)
+				.build();
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.scheme.finder.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cost of admitting a request under contention. Opt-in, as timings depend on the machine:
+// mvn test -Dtest=RateLimiterBenchmarkTest -Dbenchmark=true
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RateLimiterBenchmarkTest {
+
+	private static final int CLIENTS = 10_000;
+	private static final int WARMUP_CALLS = 200_000;
+	private static final int MEASURED_CALLS = 2_000_000;
+	private static final String[] ADDRESSES = new String[CLIENTS];
+
+	static {
+		for (int i = 0; i < CLIENTS; i++) ADDRESSES[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+	}
+
+	// Known clients each hit their own bucket; with a full table every call lands on the shared
+	// overflow bucket, the most contended path
+	@ParameterizedTest
+	@ValueSource(booleans = {false, true})
+	void tryAcquireUnderContention(boolean tableFull) throws InterruptedException {
+		RateLimiter rateLimiter = rateLimiter(tableFull ? 0 : CLIENTS);
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		run(rateLimiter, threads, WARMUP_CALLS);
+		long nanos = run(rateLimiter, threads, MEASURED_CALLS);
+
+		System.out.printf("tryAcquire, %s, %d threads: %.1f ns per call per thread%n",
+				tableFull ? "table full" : "known clients", threads, (double) nanos / MEASURED_CALLS);
+	}
+
+	private static RateLimiter rateLimiter(int maxBuckets) {
+		RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(rateLimiter, "maxBuckets", maxBuckets);
+		ReflectionTestUtils.setField(rateLimiter, "overflowFactor", 100);
+		ReflectionTestUtils.setField(rateLimiter, "searchCapacity", 60);
+		ReflectionTestUtils.setField(rateLimiter, "searchRefillPerSecond", 10.0);
+		rateLimiter.init();
+		return rateLimiter;
+	}
+
+	// Average nanoseconds a thread spends for its share of calls
+	private static long run(RateLimiter rateLimiter, int threads, int calls) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicLong totalNanos = new AtomicLong();
+		for (int t = 0; t < threads; t++) {
+			int offset = t;
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				long began = System.nanoTime();
+				for (int i = 0; i < calls; i++) {
+					rateLimiter.tryAcquire(RateLimiter.RouteGroup.SEARCH, ADDRESSES[(i + offset) % CLIENTS], 1, System.nanoTime());
+				}
+				totalNanos.addAndGet(System.nanoTime() - began);
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+		return totalNanos.get() / threads;
+	}
+}
@@ -0,0 +1,159 @@
+package com.example.scheme.finder.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private RateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		rateLimiter = new RateLimiter(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(rateLimiter, "maxBuckets", 100);
+		ReflectionTestUtils.setField(rateLimiter, "overflowFactor", 2);
+		ReflectionTestUtils.setField(rateLimiter, "authCapacity", 10);
+		ReflectionTestUtils.setField(rateLimiter, "authRefillPerSecond", 1.0);
+		ReflectionTestUtils.setField(rateLimiter, "searchCapacity", 60);
+		ReflectionTestUtils.setField(rateLimiter, "searchRefillPerSecond", 10.0);
+		ReflectionTestUtils.setField(rateLimiter, "eligibleCapacity", 30);
+		ReflectionTestUtils.setField(rateLimiter, "eligibleRefillPerSecond", 5.0);
+		ReflectionTestUtils.setField(rateLimiter, "adminCapacity", 120);
+		ReflectionTestUtils.setField(rateLimiter, "adminRefillPerSecond", 20.0);
+		ReflectionTestUtils.setField(rateLimiter, "batchCapacity", 5);
+		ReflectionTestUtils.setField(rateLimiter, "batchRefillPerSecond", 0.1);
+		ReflectionTestUtils.setField(rateLimiter, "batchProfilesCapacity", 10_000);
+		ReflectionTestUtils.setField(rateLimiter, "batchProfilesRefillPerSecond", 50.0);
+		rateLimiter.init();
+	}
+
+	@Test
+	void admitsABurstUpToCapacityThenRejects() {
+		for (int i = 0; i < 10; i++) {
+			assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, 0L)).isZero();
+		}
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, 0L)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void refillsAtTheConfiguredRate() {
+		for (int i = 0; i < 10; i++) {
+			rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, 0L);
+		}
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, SECOND / 2)).isPositive();
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, SECOND)).isZero();
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, SECOND)).isPositive();
+	}
+
+	@Test
+	void keepsClientsAndGroupsApart() {
+		for (int i = 0; i < 10; i++) {
+			rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, 0L);
+		}
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.2", 1, 0L)).isZero();
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, 7L, 1, 0L)).isZero();
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.SEARCH, "10.0.0.1", 1, 0L)).isZero();
+	}
+
+	@Test
+	void chargesMultiplePermitsAsDebt() {
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.ELIGIBLE, "10.0.0.1", 100, 0L)).isZero();
+		// 100 tokens at 5 per second leave the bucket 70 tokens short of its 30-token burst
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.ELIGIBLE, "10.0.0.1", 1, 0L))
+				.isEqualTo(71 * SECOND / 5);
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.ELIGIBLE, "10.0.0.1", 1, 71 * SECOND / 5)).isZero();
+	}
+
+	@Test
+	void chargesBatchProfilesWithoutTouchingSingleEligibilityChecks() {
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.BATCH_PROFILES, "10.0.0.1", 5_000, 0L)).isZero();
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.BATCH_PROFILES, "10.0.0.1", 5_000, 0L)).isZero();
+		// The budget is spent: the next profile refills in 1/50 s
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.BATCH_PROFILES, "10.0.0.1", 1, 0L))
+				.isEqualTo(SECOND / 50);
+
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.ELIGIBLE, "10.0.0.1", 1, 0L)).isZero();
+	}
+
+	@Test
+	void sweepsOnlyFullyRefilledBuckets() {
+		rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, 0L);
+		rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.2", 5, 0L);
+
+		rateLimiter.sweepIdle(2 * SECOND);
+
+		assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+	}
+
+	@Test
+	void limitsNewClientsTogetherWhileTheTableIsFull() {
+		ReflectionTestUtils.setField(rateLimiter, "maxBuckets", 2);
+		rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.1", 1, 0L);
+		rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.2", 1, 0L);
+
+		// The shared overflow bucket holds twice one client's burst of 10, whoever draws on it
+		for (int i = 0; i < 20; i++) {
+			assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.1." + i, 1, 0L)).isZero();
+		}
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.3", 1, 0L)).isEqualTo(SECOND / 2);
+		assertThat(rateLimiter.bucketCount()).isEqualTo(2);
+
+		// Idle buckets are only reclaimed by the scheduled sweep, never on the request path
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.3", 1, 2 * SECOND)).isZero();
+		assertThat(rateLimiter.bucketCount()).isEqualTo(2);
+		rateLimiter.sweepIdle(2 * SECOND);
+		assertThat(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "10.0.0.3", 1, 2 * SECOND)).isZero();
+		assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+	}
+
+	@Test
+	void admitsExactlyCapacityUnderContention() throws InterruptedException {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger admitted = new AtomicInteger();
+		for (int t = 0; t < threads; t++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < 1_000; i++) {
+					if (rateLimiter.tryAcquire(RateLimiter.RouteGroup.ADMIN, 1L, 1, 0L) == 0L) admitted.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(admitted.get()).isEqualTo(120);
+	}
+
+	@Test
+	void routesRequestsToTheirGroups() {
+		assertThat(RateLimitFilter.classify("POST", "/api/auth/login")).isEqualTo(RateLimiter.RouteGroup.AUTH);
+		assertThat(RateLimitFilter.classify("GET", "/api/schemes/search")).isEqualTo(RateLimiter.RouteGroup.SEARCH);
+		assertThat(RateLimitFilter.classify("POST", "/api/schemes/eligible/batch")).isEqualTo(RateLimiter.RouteGroup.BATCH);
+		assertThat(RateLimitFilter.classify("POST", "/api/schemes/eligible")).isEqualTo(RateLimiter.RouteGroup.ELIGIBLE);
+		assertThat(RateLimitFilter.classify("GET", "/api/users/me/eligible-schemes")).isEqualTo(RateLimiter.RouteGroup.ELIGIBLE);
+		assertThat(RateLimitFilter.classify("PUT", "/api/schemes/5")).isEqualTo(RateLimiter.RouteGroup.ADMIN);
+		assertThat(RateLimitFilter.classify("PUT", "/api/applications/5/status")).isEqualTo(RateLimiter.RouteGroup.ADMIN);
+		assertThat(RateLimitFilter.classify("GET", "/api/schemes/5")).isNull();
+		assertThat(RateLimitFilter.classify("GET", "/api/categories")).isNull();
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.scheme.finder.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenStoreTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final RefreshTokenStore store = new RefreshTokenStore(jdbcTemplate);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "refreshExpiration", 60_000L);
+		ReflectionTestUtils.setField(store, "sweepBatchSize", 2);
+	}
+
+	@Test
+	void storesOnlyTheHashOfAnIssuedToken() {
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+
+		String token = store.issue(5L);
+
+		assertThat(token).matches("5\\.[A-Za-z0-9_-]{43}");
+		verify(jdbcTemplate).update(startsWith("INSERT INTO refresh_tokens"), args.capture());
+		assertThat(args.getValue()[0]).isEqualTo(5L);
+		assertThat(args.getValue()[1]).isEqualTo(sha256(token));
+		assertThat((Timestamp) args.getValue()[2]).isAfter(Timestamp.from(Instant.now()));
+	}
+
+	@Test
+	void rotatesTheCurrentTokenInOneConditionalUpdate() {
+		when(jdbcTemplate.update(startsWith("UPDATE refresh_tokens"), any(Object[].class))).thenReturn(1);
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+
+		RefreshTokenStore.Rotation rotation = store.rotate("5.presented").orElseThrow();
+
+		assertThat(rotation.getUserId()).isEqualTo(5L);
+		assertThat(rotation.getToken()).startsWith("5.").isNotEqualTo("5.presented");
+		verify(jdbcTemplate).update(startsWith("UPDATE refresh_tokens"), args.capture());
+		assertThat(Arrays.asList(args.getValue()))
+				.containsSubsequence(sha256(rotation.getToken()))
+				.containsSubsequence(5L, sha256("5.presented"));
+	}
+
+	@Test
+	void rejectsAStaleOrExpiredToken() {
+		when(jdbcTemplate.update(startsWith("UPDATE refresh_tokens"), any(Object[].class))).thenReturn(0);
+
+		assertThat(store.rotate("5.stale")).isEmpty();
+	}
+
+	@Test
+	void rejectsMalformedTokensWithoutQuerying() {
+		assertThat(store.rotate(null)).isEmpty();
+		assertThat(store.rotate("no-user-id")).isEmpty();
+		assertThat(store.rotate(".missing")).isEmpty();
+		assertThat(store.rotate("abc.def")).isEmpty();
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	@Test
+	void sweepsInBatchesUntilOneComesBackShort() {
+		when(jdbcTemplate.update(startsWith("DELETE FROM refresh_tokens WHERE expiry_date"), any(Object[].class)))
+				.thenReturn(2, 2, 1);
+
+		store.sweepExpired();
+
+		verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM refresh_tokens WHERE expiry_date"), any(Object[].class));
+	}
+
+	@Test
+	void leavesAnExistingUserIndexAlone() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Integer.class))).thenReturn(1);
+
+		store.ensureUserIndex();
+
+		verify(jdbcTemplate, never()).update(anyString());
+		verify(jdbcTemplate, never()).execute(anyString());
+	}
+
+	@Test
+	void removesDuplicateRowsBeforeCreatingTheUserIndex() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Integer.class))).thenReturn(0);
+
+		store.ensureUserIndex();
+
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).update(startsWith("DELETE older FROM refresh_tokens"));
+		inOrder.verify(jdbcTemplate).execute("CREATE UNIQUE INDEX uk_refresh_tokens_user_id ON refresh_tokens (user_id)");
+	}
+
+	@Test
+	void acceptsAUserIndexCreatedConcurrentlyButFailsWithoutOne() {
+		doThrow(new BadSqlGrammarException("create", "CREATE UNIQUE INDEX", new SQLException("Duplicate key name")))
+				.when(jdbcTemplate).execute(anyString());
+		when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Integer.class))).thenReturn(0, 1, 0, 0);
+
+		store.ensureUserIndex();
+
+		assertThatThrownBy(store::ensureUserIndex).isInstanceOf(BadSqlGrammarException.class);
+	}
+
+	private static String sha256(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.scheme.finder.security;
+
+import com.example.scheme.finder.event.UserTokensRevokedEvent;
+import com.example.scheme.finder.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenEpochRegistryTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TokenEpochRegistry registry = new TokenEpochRegistry(userRepository);
+
+	@Test
+	void rejectsTokensIssuedBeforeTheCurrentEpoch() {
+		when(userRepository.findRaisedTokenEpochs()).thenReturn(rows(new Object[]{1L, 2L}));
+		registry.load();
+
+		assertThat(registry.isRevoked(1L, 1L)).isTrue();
+		assertThat(registry.isRevoked(1L, 2L)).isFalse();
+		assertThat(registry.isRevoked(2L, 0L)).isFalse();
+	}
+
+	@Test
+	void neverMovesAnEpochBackwards() {
+		registry.onTokensRevoked(new UserTokensRevokedEvent(1L, 3L));
+		registry.onTokensRevoked(new UserTokensRevokedEvent(1L, 2L));
+		when(userRepository.findRaisedTokenEpochs()).thenReturn(rows(new Object[]{1L, 1L}));
+		registry.load();
+
+		assertThat(registry.isRevoked(1L, 2L)).isTrue();
+		assertThat(registry.isRevoked(1L, 3L)).isFalse();
+	}
+
+	@Test
+	void picksUpEpochsRaisedElsewhereOnReload() {
+		when(userRepository.findRaisedTokenEpochs()).thenReturn(rows());
+		registry.load();
+		assertThat(registry.isRevoked(5L, 0L)).isFalse();
+
+		when(userRepository.findRaisedTokenEpochs()).thenReturn(rows(new Object[]{5L, 1L}));
+		registry.load();
+
+		assertThat(registry.isRevoked(5L, 0L)).isTrue();
+	}
+
+	private static List<Object[]> rows(Object[]... rows) {
+		return new ArrayList<>(List.of(rows));
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.scheme.finder.service;
+
+import com.example.scheme.finder.controller.AuthController;
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.exception.GlobalExceptionHandler;
+import com.example.scheme.finder.repository.UserRepository;
+import com.example.scheme.finder.security.BoundedPasswordEncoder;
+import com.example.scheme.finder.security.JwtUtil;
+import com.example.scheme.finder.security.RefreshTokenStore;
+import com.example.scheme.finder.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Login through the real DaoAuthenticationProvider, so a full hashing pool has to get past Spring
+// Security's exception handling to reach the client as 429
+class AuthServiceImplTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BoundedPasswordEncoder passwordEncoder =
+			new BoundedPasswordEncoder(new HoldingEncoder(), 1, 1, 7, meterRegistry);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final JwtUtil jwtUtil = mock(JwtUtil.class);
+	private final MockMvc mockMvc;
+
+	AuthServiceImplTest() {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(new UserDetailsServiceImpl(userRepository));
+		provider.setPasswordEncoder(passwordEncoder);
+		AuthServiceImpl authService = new AuthServiceImpl(userRepository, mock(RefreshTokenStore.class),
+				passwordEncoder, jwtUtil, new ProviderManager(provider));
+		mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService))
+				.setControllerAdvice(new GlobalExceptionHandler())
+				.build();
+		User user = User.builder()
+				.id(1L)
+				.email("asha@example.com")
+				.password("hashed:secret")
+				.fullName("Asha")
+				.role(User.Role.USER)
+				.isActive(true)
+				.build();
+		when(userRepository.findByEmail("asha@example.com")).thenReturn(Optional.of(user));
+		when(userRepository.findByEmail("ravi@example.com")).thenReturn(Optional.empty());
+		when(jwtUtil.generateToken(any())).thenReturn("access-token");
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		passwordEncoder.shutdown();
+	}
+
+	@Test
+	void answersLoginsWith429AndRetryAfterWhileThePoolIsFull() throws Exception {
+		CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("held", "hashed:held"));
+		CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("held", "hashed:held"));
+		awaitQueueDepth(1);
+
+		mockMvc.perform(login("asha@example.com", "secret"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+		// Unknown emails still hash, against timing attacks, so they are turned away the same way
+		mockMvc.perform(login("ravi@example.com", "secret"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+		verify(jwtUtil, never()).generateToken(any());
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void answersLoginsNormallyOnceThePoolHasRoom() throws Exception {
+		release.countDown();
+
+		mockMvc.perform(login("asha@example.com", "secret")).andExpect(status().isOk());
+		mockMvc.perform(login("asha@example.com", "wrong")).andExpect(status().isUnauthorized());
+		mockMvc.perform(login("ravi@example.com", "secret")).andExpect(status().isUnauthorized());
+	}
+
+	private static RequestBuilder login(String email, String password) {
+		return post("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+	}
+
+	private void awaitQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("password.hashing.queue.depth").gauge().value() < depth) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	// Compares against "hashed:" + the raw password; "held" calls occupy the pool until released
+	private class HoldingEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return "hashed:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			if ("held".contentEquals(rawPassword)) {
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
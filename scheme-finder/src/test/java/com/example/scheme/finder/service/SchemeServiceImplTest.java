@@ -0,0 +1,200 @@
+package com.example.scheme.finder.service;
+
+import com.example.scheme.finder.analytics.SearchAnalytics;
+import com.example.scheme.finder.analytics.TrendingSchemeTracker;
+import com.example.scheme.finder.cache.CategoryDictionary;
+import com.example.scheme.finder.cache.SavedSchemeIdCache;
+import com.example.scheme.finder.cache.SchemeCounters;
+import com.example.scheme.finder.cache.SchemeDetailCache;
+import com.example.scheme.finder.cache.SchemeViewCounter;
+import com.example.scheme.finder.dto.PagedResponse;
+import com.example.scheme.finder.dto.SchemeDto;
+import com.example.scheme.finder.eligibility.EligibilityBatchEvaluator;
+import com.example.scheme.finder.eligibility.EligibilityEngine;
+import com.example.scheme.finder.eligibility.SchemeMatchJobRunner;
+import com.example.scheme.finder.eligibility.UserEligibilityCache;
+import com.example.scheme.finder.entity.Scheme;
+import com.example.scheme.finder.exception.BadRequestException;
+import com.example.scheme.finder.exception.ServiceUnavailableException;
+import com.example.scheme.finder.repository.CategoryRepository;
+import com.example.scheme.finder.repository.SchemeRepository;
+import com.example.scheme.finder.repository.UserRepository;
+import com.example.scheme.finder.search.SchemeFacetIndex;
+import com.example.scheme.finder.search.SchemeQueryPlanner;
+import com.example.scheme.finder.search.SchemeSearchIndex;
+import com.example.scheme.finder.search.SuggestionIndex;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemeServiceImplTest {
+
+	private final SchemeRepository schemeRepository = mock(SchemeRepository.class);
+	private final SchemeFacetIndex schemeFacetIndex = mock(SchemeFacetIndex.class);
+	private final SchemeSearchIndex schemeSearchIndex = mock(SchemeSearchIndex.class);
+	private final EligibilityEngine eligibilityEngine = mock(EligibilityEngine.class);
+	private final SchemeServiceImpl schemeService = new SchemeServiceImpl(
+			schemeRepository,
+			mock(CategoryRepository.class),
+			mock(SavedSchemeIdCache.class),
+			mock(CategoryDictionary.class),
+			mock(SchemeCounters.class),
+			mock(SchemeViewCounter.class),
+			mock(SchemeDetailCache.class),
+			mock(TrendingSchemeTracker.class),
+			mock(SearchAnalytics.class),
+			mock(UserRepository.class),
+			schemeSearchIndex,
+			mock(SuggestionIndex.class),
+			schemeFacetIndex,
+			new SchemeQueryPlanner(schemeFacetIndex, schemeSearchIndex),
+			eligibilityEngine,
+			mock(EligibilityBatchEvaluator.class),
+			mock(UserEligibilityCache.class),
+			mock(SchemeMatchJobRunner.class),
+			mock(ApplicationEventPublisher.class));
+
+	@Test
+	void checksLargeKeywordMatchesAgainstResidualFiltersInBoundedChunks() {
+		// 2,500 keyword hits; the residual launch date filter keeps the even ids
+		long[] hits = LongStream.rangeClosed(1, 2_500).toArray();
+		when(schemeSearchIndex.isReady()).thenReturn(true);
+		when(schemeSearchIndex.estimateMatches("scheme")).thenReturn(hits.length);
+		when(schemeSearchIndex.findMatchingIds(eq("scheme"), anyBoolean())).thenReturn(Optional.of(hits));
+		List<Integer> boundListSizes = new ArrayList<>();
+		when(schemeRepository.count(any(Specification.class))).thenAnswer(invocation -> {
+			List<Long> ids = boundIds(invocation.getArgument(0));
+			boundListSizes.add(ids.size());
+			return ids.stream().filter(id -> id % 2 == 0).count();
+		});
+		when(schemeRepository.findAll(any(Specification.class), any(Pageable.class))).thenAnswer(invocation -> {
+			List<Long> ids = boundIds(invocation.getArgument(0));
+			Pageable page = invocation.getArgument(1);
+			boundListSizes.add(ids.size());
+			List<Scheme> rows = ids.stream()
+					.filter(id -> id % 2 == 0)
+					.sorted(Comparator.reverseOrder())
+					.limit(page.getPageSize())
+					.map(id -> Scheme.builder().id(id).status(Scheme.SchemeStatus.ACTIVE).build())
+					.toList();
+			return new PageImpl<>(rows);
+		});
+		SchemeDto.SchemeFilterRequest filter = new SchemeDto.SchemeFilterRequest();
+		filter.setKeyword("scheme");
+		filter.setLaunchedAfter(LocalDate.of(2020, 1, 1));
+
+		// Page 41 of size 12 straddles the newest chunk (ids 1501-2500, 500 matches) and the next one
+		SchemeDto.FilterResponse response = schemeService.filterSchemes(filter,
+				PageRequest.of(41, 12, Sort.by("id").descending()), null);
+
+		assertThat(response.getPath()).isEqualTo(SchemeDto.FilterPath.INDEX_WITH_SPECIFICATION);
+		assertThat(response.getResults().getTotalElements()).isEqualTo(1_250);
+		assertThat(response.getResults().getContent()).extracting(SchemeDto.SchemeSummary::getId)
+				.containsExactly(1516L, 1514L, 1512L, 1510L, 1508L, 1506L, 1504L, 1502L, 1500L, 1498L, 1496L, 1494L);
+		assertThat(boundListSizes).isNotEmpty().allSatisfy(size ->
+				assertThat(size).isLessThanOrEqualTo(SchemeQueryPlanner.MAX_IN_LIST_SIZE));
+	}
+
+	@Test
+	void clampsDeepEligibilityPagesInsteadOfOverflowing() {
+		when(eligibilityEngine.match(any(), anyInt(), anyInt()))
+				.thenReturn(Optional.of(new EligibilityEngine.MatchResult(List.of(), 3)));
+
+		PagedResponse<SchemeDto.SchemeSummary> page =
+				schemeService.getEligibleSchemes(new SchemeDto.EligibilityFilterRequest(), PageRequest.of(Integer.MAX_VALUE, 12), null);
+
+		verify(eligibilityEngine).match(any(), eq(Integer.MAX_VALUE), eq(12));
+		assertThat(page.getContent()).isEmpty();
+	}
+
+	@Test
+	void fallsBackToTheDatabaseOnlyForFiltersItMatchesTheSameWay() {
+		when(eligibilityEngine.match(any(), anyInt(), anyInt())).thenReturn(Optional.empty());
+		when(schemeRepository.findEligibleSchemes(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+				.thenReturn(Page.empty());
+		SchemeDto.EligibilityFilterRequest byAge = new SchemeDto.EligibilityFilterRequest();
+		byAge.setAge(30);
+		SchemeDto.EligibilityFilterRequest byState = new SchemeDto.EligibilityFilterRequest();
+		byState.setState("Kerala");
+		SchemeDto.EligibilityFilterRequest byCategory = new SchemeDto.EligibilityFilterRequest();
+		byCategory.setCategory("SC");
+
+		schemeService.getEligibleSchemes(byAge, PageRequest.of(0, 12), null);
+
+		assertThatThrownBy(() -> schemeService.getEligibleSchemes(byState, PageRequest.of(0, 12), null))
+				.isInstanceOf(ServiceUnavailableException.class);
+		assertThatThrownBy(() -> schemeService.getEligibleSchemes(byCategory, PageRequest.of(0, 12), null))
+				.isInstanceOf(ServiceUnavailableException.class);
+		verify(schemeRepository, times(1)).findEligibleSchemes(any(), any(), any(), any(), any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void clampsDeepExplainPagesInsteadOfOverflowing() {
+		when(eligibilityEngine.explain(any(), anyInt(), anyInt()))
+				.thenReturn(Optional.of(new EligibilityEngine.ExplainResult(List.of(), 3, 1, 8)));
+
+		PagedResponse<SchemeDto.EligibilityExplanation> page = schemeService.explainEligibleSchemes(
+				new SchemeDto.EligibilityFilterRequest(), PageRequest.of(Integer.MAX_VALUE, 12), null);
+
+		verify(eligibilityEngine).explain(any(), eq(Integer.MAX_VALUE), eq(12));
+		assertThat(page.getContent()).isEmpty();
+		assertThat(page.getTotalElements()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsBatchesWithANullProfile() {
+		List<SchemeDto.EligibilityFilterRequest> filters = new ArrayList<>();
+		filters.add(new SchemeDto.EligibilityFilterRequest());
+		filters.add(null);
+
+		assertThatThrownBy(() -> schemeService.prepareEligibilityBatch(filters))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("Profile 1");
+	}
+
+	// The ids a specification binds through SchemeSpecifications.idIn
+	@SuppressWarnings("unchecked")
+	private static List<Long> boundIds(Specification<Scheme> specification) {
+		Root<Scheme> root = mock(Root.class);
+		Path<Object> path = mock(Path.class);
+		doReturn(path).when(root).get(anyString());
+		List<Long> bound = new ArrayList<>();
+		when(path.in(anyCollection())).thenAnswer(invocation -> {
+			bound.addAll(invocation.getArgument(0));
+			return mock(Predicate.class);
+		});
+		specification.toPredicate(root, mock(CriteriaQuery.class), mock(CriteriaBuilder.class));
+		return bound;
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.scheme.finder.service;
+
+import com.example.scheme.finder.entity.User;
+import com.example.scheme.finder.event.UserTokensRevokedEvent;
+import com.example.scheme.finder.repository.UserRepository;
+import com.example.scheme.finder.security.RefreshTokenStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final RefreshTokenStore refreshTokenStore = mock(RefreshTokenStore.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final UserServiceImpl userService = new UserServiceImpl(
+			userRepository, refreshTokenStore, mock(PasswordEncoder.class), eventPublisher);
+
+	@Test
+	void deactivationOutdatesIssuedTokens() {
+		User user = user(true, 4L);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+		userService.deactivateUser(1L);
+
+		ArgumentCaptor<UserTokensRevokedEvent> event = ArgumentCaptor.forClass(UserTokensRevokedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue().getTokenEpoch()).isEqualTo(5L);
+		assertThat(user.getTokenEpoch()).isEqualTo(5L);
+		assertThat(user.getIsActive()).isFalse();
+		verify(refreshTokenStore).revoke(1L);
+	}
+
+	@Test
+	void deactivatingAnInactiveUserLeavesTheEpochAlone() {
+		User user = user(false, 4L);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+		userService.deactivateUser(1L);
+
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+		assertThat(user.getTokenEpoch()).isEqualTo(4L);
+	}
+
+	@Test
+	void startsBuiltUsersAtEpochZero() {
+		User user = User.builder().id(1L).email("user@example.com").isActive(true).build();
+		assertThat(user.getTokenEpoch()).isZero();
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+		userService.deactivateUser(1L);
+
+		assertThat(user.getTokenEpoch()).isEqualTo(1L);
+	}
+
+	private static User user(boolean active, long tokenEpoch) {
+		return User.builder()
+				.id(1L)
+				.email("user@example.com")
+				.role(User.Role.USER)
+				.isActive(active)
+				.tokenEpoch(tokenEpoch)
+				.build();
+	}
+}